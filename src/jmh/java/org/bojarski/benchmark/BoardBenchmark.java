@@ -0,0 +1,27 @@
+package org.bojarski.benchmark;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Move;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    // moves are memoized per board, passing twice yields an equal board with an empty cache
+    @Benchmark
+    public List<Move> moves(Positions positions) {
+        return positions.board.pass().pass().moves();
+    }
+
+    @Benchmark
+    public Board perform(Positions positions) {
+        return positions.board.perform(positions.move);
+    }
+}
@@ -0,0 +1,24 @@
+package org.bojarski.benchmark;
+
+import org.bojarski.player.ChessPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    @Benchmark
+    public double evaluate(Positions positions) {
+        return ChessPlayer.evaluate(positions.board);
+    }
+
+    @Benchmark
+    public double material(Positions positions) {
+        return ChessPlayer.evaluate(positions.board.side(), positions.board.pieces());
+    }
+}
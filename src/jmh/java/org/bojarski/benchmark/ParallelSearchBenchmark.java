@@ -0,0 +1,84 @@
+package org.bojarski.benchmark;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.negamax.Domain;
+import org.bojarski.negamax.NegaMax;
+import org.bojarski.negamax.TranspositionTable;
+import org.bojarski.player.ChessPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// time to depth of lazy smp, the speedup is the single thread score divided by the score for more threads; nodes are
+// counted over all threads, so nodes divided by time is the nps each thread count reaches
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSearchBenchmark {
+    private static final Domain<Board, Move> CHESS = Domain.<Board, Move>builder()
+            .actionPerformer(Board::perform)
+            .actionsProducer(Board::moves)
+            .build();
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"5"})
+    public int depth;
+
+    private ForkJoinPool pool;
+    private TranspositionTable<Move> table;
+    private NegaMax<Board, Move> algorithm;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pool = threads > 1 ? new ForkJoinPool(threads - 1) : null;
+        table = TranspositionTable.of(64);
+        algorithm = NegaMax.<Board, Move>builder()
+                .heuristic(ChessPlayer::evaluate)
+                .domain(CHESS)
+                .key(Board::key)
+                .table(table)
+                .aspiration(5.0)
+                .threads(threads)
+                .executor(pool)
+                .build();
+    }
+
+    // every search starts from an empty table, otherwise later iterations only read back earlier results
+    @Setup(Level.Invocation)
+    public void clear() {
+        table.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        if (pool != null) pool.shutdown();
+    }
+
+    // one search per single shot iteration, so the events counted are the nodes of that search
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Benchmark
+    public Move search(Positions positions, Nodes counter) {
+        final var search = algorithm.search(positions.board, Board::gameover, depth);
+        final var move = search.iterator().next();
+        counter.nodes += search.statistics().nodes();
+
+        return move;
+    }
+}
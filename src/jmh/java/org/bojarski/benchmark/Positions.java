@@ -0,0 +1,30 @@
+package org.bojarski.benchmark;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.Perft;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// positions are taken from the perft suite so benchmark and correctness runs share the same boards
+@State(Scope.Benchmark)
+public class Positions {
+
+    @Param({"initial", "middlegame", "endgame"})
+    public String position;
+
+    public Board board;
+    public Move move;
+
+    @Setup
+    public void setup() {
+        board = Perft.SUITE.stream()
+                .filter(candidate -> candidate.name().equals(position))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No perft position named " + position))
+                .board();
+        move = board.moves().get(0);
+    }
+}
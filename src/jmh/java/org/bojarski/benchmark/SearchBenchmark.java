@@ -0,0 +1,49 @@
+package org.bojarski.benchmark;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.negamax.Domain;
+import org.bojarski.negamax.NegaMax;
+import org.bojarski.player.ChessPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final Domain<Board, Move> CHESS = Domain.<Board, Move>builder()
+            .actionPerformer(Board::perform)
+            .actionsProducer(Board::moves)
+            .build();
+
+    @Param({"3"})
+    public int depth;
+
+    private ChessPlayer player;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        player = new ChessPlayer(1, 1);
+    }
+
+    // the table and caches start cold every search without allocating a new player inside the measurement
+    @Setup(Level.Invocation)
+    public void clear() {
+        player.clear();
+    }
+
+    @Benchmark
+    public Move player(Positions positions) {
+        return player.findMove(positions.board, depth).next();
+    }
+
+    @Benchmark
+    public Move alphabeta(Positions positions) {
+        return NegaMax.of(ChessPlayer::evaluate, CHESS).search(positions.board, Board::gameover, depth).iterator().next();
+    }
+}
@@ -3,14 +3,24 @@ package org.bojarski;
 import org.bojarski.chess.board.map.Board;
 import org.bojarski.chess.board.map.Field;
 import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.Perft;
 import org.bojarski.chess.board.map.PieceKind;
+import org.bojarski.epd.Analysis;
+import org.bojarski.negamax.Budget;
 import org.bojarski.player.ChessPlayer;
+import org.bojarski.tournament.Contender;
+import org.bojarski.tournament.Tournament;
+import org.bojarski.uci.Uci;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
-import java.util.concurrent.*;
 
 import static java.lang.Integer.parseInt;
 import static org.bojarski.chess.board.map.Move.move;
@@ -18,16 +28,29 @@ import static org.bojarski.chess.board.map.Side.BLACK;
 import static org.bojarski.chess.board.map.Side.WHITE;
 
 public class Application {
-    public static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
     public static final String SEPARATOR = " ";
     private static final List<Move> moves = new ArrayList<>();
+    private static final int TABLE_SIZE = 16;
     private static ChessPlayer player = new ChessPlayer();
     private static Board board = Board.initialized();
     private static int defaultDepth = 4;
     private static int waittime = 5;
+    private static Path statistics;
 
     public static void main(String[] args) {
         final Scanner scanner = new Scanner(System.in);
+        if (args.length > 0 && args[0].equals("uci")) {
+            new Uci(scanner, System.out).run();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("epd")) {
+            analyse(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("match")) {
+            match(args);
+            return;
+        }
         System.out.println(board.print());
 
         String input = "";
@@ -40,6 +63,13 @@ public class Application {
                 final var code = command[0];
                 final var arguments = command.length > 1 ? command[1] : "";
                 switch (code) {
+                    case "uci":
+                        // a gui opens with uci, the console hands the session over to the protocol
+                        player.close();
+                        final var uci = new Uci(scanner, System.out);
+                        uci.identify();
+                        uci.run();
+                        return;
                     case "pp":
                         placePiece(arguments);
                         break;
@@ -61,12 +91,30 @@ public class Application {
                     case "wt":
                         waittime(arguments);
                         break;
+                    case "th":
+                        threads(arguments);
+                        break;
                     case "ap":
                         autoplay();
                         break;
                     case "pm":
                         printmoves();
                         break;
+                    case "pf":
+                        perft(arguments);
+                        break;
+                    case "pd":
+                        divide(arguments);
+                        break;
+                    case "ps":
+                        perftSuite();
+                        break;
+                    case "sj":
+                        statistics(arguments);
+                        break;
+                    case "fe":
+                        fen(arguments);
+                        break;
                 }
 
                 System.out.println(board.print());
@@ -77,6 +125,41 @@ public class Application {
         }
     }
 
+    private static void perft(String arguments) {
+        final var depth = parseInt(arguments);
+        final var start = System.nanoTime();
+        final var nodes = Perft.perft(board, depth);
+        final var end = System.nanoTime();
+
+        System.out.println(nodes + " nodes at depth " + depth + " in " + (end - start) / 1000000 + "ms, " + nps(nodes, end - start) + " nodes/s");
+    }
+
+    private static void divide(String arguments) {
+        final var divided = Perft.divide(board, parseInt(arguments));
+        divided.forEach((move, nodes) -> System.out.println(move + ": " + nodes));
+        System.out.println(divided.values().stream().mapToLong(Long::longValue).sum() + " nodes");
+    }
+
+    private static void perftSuite() {
+        var total = 0L;
+        var elapsed = 0L;
+        for (Perft.Position position : Perft.SUITE) {
+            final var start = System.nanoTime();
+            final var nodes = Perft.perft(position.board(), position.depth());
+            final var end = System.nanoTime();
+            final var expected = position.nodes()[position.depth() - 1];
+
+            total += nodes;
+            elapsed += end - start;
+            System.out.println(position.name() + ": " + nodes + (nodes == expected ? "" : " expected " + expected) + ", " + nps(nodes, end - start) + " nodes/s");
+        }
+        System.out.println(total + " nodes, " + nps(total, elapsed) + " nodes/s");
+    }
+
+    private static long nps(long nodes, long nanos) {
+        return nanos == 0 ? 0 : nodes * 1000000000L / nanos;
+    }
+
     private static void printmoves() {
         moves.forEach(System.out::println);
     }
@@ -95,6 +178,12 @@ public class Application {
         waittime = parseInt(arguments);
     }
 
+    private static void threads(String arguments) {
+        final var threads = parseInt(arguments);
+        player.close();
+        player = new ChessPlayer(TABLE_SIZE, threads);
+    }
+
     private static void resetBoard() {
         board = Board.initialized();
     }
@@ -103,21 +192,126 @@ public class Application {
         defaultDepth = parseInt(arguments);
     }
 
-    private static void findMove() throws Exception {
+    private static void findMove() {
         final var start = System.nanoTime();
-        final var move = EXECUTOR.submit(() -> {
-            final var search = player.findMove(board, defaultDepth);
-            if (search.hasNext()) {
-                return search.next();
-            }
-            return null;
-        }).get(waittime, TimeUnit.MINUTES);
+        final var search = player.findMove(board, defaultDepth, Budget.of(Duration.ofMinutes(waittime)));
+        if (!search.hasNext()) {
+            throw new RuntimeException("No move to find");
+        }
+        final var move = search.next();
         final var end = System.nanoTime();
         System.out.println(move + " found in " + ((end - start) / 1000000) + "ms");
+        System.out.println(player.statistics());
+        export(player.statistics().json());
         board = board.perform(move);
         moves.add(move);
     }
 
+    // epd <input> <output> [depth=<plies>] [time=<ms>] [workers=<threads>]
+    private static void analyse(String[] args) {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: epd <input> <output> [depth=<plies>] [time=<ms>] [workers=<threads>]");
+        }
+
+        final var analysis = Analysis.builder().depth(defaultDepth).workers(Runtime.getRuntime().availableProcessors());
+        for (int index = 3; index < args.length; index++) {
+            final var option = args[index].split("=", 2);
+            switch (option[0]) {
+                case "depth":
+                    analysis.depth(parseInt(option[1]));
+                    break;
+                case "time":
+                    analysis.time(Duration.ofMillis(parseInt(option[1]))).depth(0);
+                    break;
+                case "workers":
+                    analysis.workers(parseInt(option[1]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("No option " + option[0]);
+            }
+        }
+
+        try (final var input = Files.newBufferedReader(Path.of(args[1]));
+             final var output = Files.newBufferedWriter(Path.of(args[2]))) {
+            System.out.println(analysis.build().run(input, output));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // match <output> [first=<depth>] [second=<depth>] [time=<ms>] [games=<count>] [workers=<threads>] [random=<plies>]
+    private static void match(String[] args) {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: match <output> [first=<depth>] [second=<depth>] [time=<ms>] [games=<count>] [workers=<threads>] [random=<plies>]");
+        }
+
+        var first = defaultDepth;
+        var second = defaultDepth - 1;
+        Duration time = null;
+        final var tournament = Tournament.builder().games(100).randomPlies(4);
+        for (int index = 2; index < args.length; index++) {
+            final var option = args[index].split("=", 2);
+            switch (option[0]) {
+                case "first":
+                    first = parseInt(option[1]);
+                    break;
+                case "second":
+                    second = parseInt(option[1]);
+                    break;
+                case "time":
+                    time = Duration.ofMillis(parseInt(option[1]));
+                    break;
+                case "games":
+                    tournament.games(parseInt(option[1]));
+                    break;
+                case "workers":
+                    tournament.workers(parseInt(option[1]));
+                    break;
+                case "random":
+                    tournament.randomPlies(parseInt(option[1]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("No option " + option[0]);
+            }
+        }
+
+        tournament
+                .first(time == null ? Contender.of("depth " + first, ChessPlayer::new, first) : Contender.of("depth " + first, ChessPlayer::new, first, time))
+                .second(time == null ? Contender.of("depth " + second, ChessPlayer::new, second) : Contender.of("depth " + second, ChessPlayer::new, second, time));
+
+        try (final var output = Files.newBufferedWriter(Path.of(args[1]))) {
+            System.out.println(tournament.build().run(output));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void fen(String arguments) {
+        if (!arguments.isBlank()) {
+            board = Board.fromFen(arguments);
+            moves.clear();
+        }
+        System.out.println(board.toFen());
+    }
+
+    private static void statistics(String arguments) {
+        statistics = arguments.isBlank() ? null : Path.of(arguments.trim());
+    }
+
+    private static void export(String line) {
+        if (statistics == null) return;
+
+        try {
+            Files.writeString(statistics, line + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write statistics to " + statistics, e);
+        }
+    }
+
     private static void makeMove(String arguments) {
         final var sections = arguments.split(SEPARATOR);
         final var from = Field.byCode(sections[0].toUpperCase()).orElseThrow(() -> new RuntimeException("No field " + sections[0]));
@@ -0,0 +1,133 @@
+package org.bojarski.chess.board.bitboard;
+
+import org.bojarski.chess.board.map.Field;
+import org.bojarski.chess.board.map.Side;
+
+import static java.lang.Long.numberOfTrailingZeros;
+
+// squares are indexed by Field.ordinal(), i.e. file * 8 + rank
+public final class Bitboards {
+    public static final Field[] FIELDS = Field.values();
+
+    private static final long[] KNIGHT_ATTACKS = leaper(new int[][]{{+1, +2}, {+2, +1}, {+2, -1}, {+1, -2}, {-1, -2}, {-2, -1}, {-2, +1}, {-1, +2}});
+    private static final long[] KING_ATTACKS = leaper(new int[][]{{0, +1}, {+1, +1}, {+1, 0}, {+1, -1}, {0, -1}, {-1, -1}, {-1, 0}, {-1, +1}});
+    private static final long[][] PAWN_ATTACKS = {
+            leaper(new int[][]{{-1, +1}, {+1, +1}}),
+            leaper(new int[][]{{-1, -1}, {+1, -1}})
+    };
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        final int[][] directions = {{0, +1}, {+1, +1}, {+1, 0}, {+1, -1}, {0, -1}, {-1, -1}, {-1, 0}, {-1, +1}};
+        for (int square = 0; square < 64; square++) {
+            for (int[] direction : directions) {
+                final var line = slide(square, 0L, direction[0], direction[1]) | slide(square, 0L, -direction[0], -direction[1]) | bit(square);
+                var between = 0L;
+                for (long ray = slide(square, 0L, direction[0], direction[1]); ray != 0; ) {
+                    final var target = nearest(square, ray, direction);
+                    BETWEEN[square][target] = between;
+                    LINE[square][target] = line;
+                    between |= bit(target);
+                    ray &= ~bit(target);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static int square(int file, int rank) {
+        return file * 8 + rank;
+    }
+
+    public static int file(int square) {
+        return square >>> 3;
+    }
+
+    public static int rank(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long bit(Field field) {
+        return 1L << field.ordinal();
+    }
+
+    public static int first(long bitboard) {
+        return numberOfTrailingZeros(bitboard);
+    }
+
+    public static long knight(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long king(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long pawn(Side side, int square) {
+        return PAWN_ATTACKS[side.ordinal()][square];
+    }
+
+    public static long rook(int square, long occupancy) {
+        return Magic.rook(square, occupancy);
+    }
+
+    public static long bishop(int square, long occupancy) {
+        return Magic.bishop(square, occupancy);
+    }
+
+    public static long queen(int square, long occupancy) {
+        return Magic.queen(square, occupancy);
+    }
+
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static int nearest(int square, long ray, int[] direction) {
+        return direction[0] > 0 || direction[0] == 0 && direction[1] > 0 ? first(ray) : 63 - Long.numberOfLeadingZeros(ray);
+    }
+
+    static long slide(int square, long occupancy, int fileStep, int rankStep) {
+        var attacks = 0L;
+        var file = file(square) + fileStep;
+        var rank = rank(square) + rankStep;
+
+        while (file >= 0 && rank >= 0 && file < 8 && rank < 8) {
+            final var target = bit(square(file, rank));
+            attacks |= target;
+            if ((occupancy & target) != 0) break;
+
+            file += fileStep;
+            rank += rankStep;
+        }
+
+        return attacks;
+    }
+
+    private static long[] leaper(int[][] steps) {
+        final var attacks = new long[64];
+        for (int square = 0; square < 64; square++) {
+            for (int[] step : steps) {
+                final var file = file(square) + step[0];
+                final var rank = rank(square) + step[1];
+                if (file >= 0 && rank >= 0 && file < 8 && rank < 8) {
+                    attacks[square] |= bit(square(file, rank));
+                }
+            }
+        }
+
+        return attacks;
+    }
+}
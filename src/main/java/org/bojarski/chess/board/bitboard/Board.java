@@ -0,0 +1,166 @@
+package org.bojarski.chess.board.bitboard;
+
+import org.bojarski.chess.board.map.Field;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.Pawn;
+import org.bojarski.chess.board.map.Piece;
+import org.bojarski.chess.board.map.PieceKind;
+import org.bojarski.chess.board.map.Side;
+
+import java.util.*;
+
+import static java.util.Collections.unmodifiableList;
+import static org.bojarski.chess.board.bitboard.Bitboards.*;
+import static org.bojarski.chess.board.map.PieceKind.*;
+
+public class Board extends Position {
+    public static Board initialized() {
+        return empty().initialize();
+    }
+    public static Board empty() {
+        return new Board(Side.WHITE, new long[SIDES.length * KINDS.length], new long[SIDES.length], 0L, 0);
+    }
+
+    // the same position on bitboards, pawns keep whether they may still advance two fields
+    public static Board of(org.bojarski.chess.board.map.Board board) {
+        final var pieces = new long[SIDES.length * KINDS.length];
+        final var sides = new long[SIDES.length];
+        var initial = 0L;
+        for (Piece piece : board.pieces()) {
+            final var square = bit(piece.position());
+            pieces[index(piece.side(), piece.type())] |= square;
+            sides[piece.side().ordinal()] |= square;
+            if (piece instanceof Pawn && ((Pawn) piece).initial()) initial |= square;
+        }
+
+        return new Board(board.side(), pieces, sides, initial, board.count());
+    }
+
+    private final Side movingside;
+
+    private final Integer count;
+
+    private List<Move> moves;
+
+    private Board(Side movingside, long[] pieces, long[] sides, long initial, Integer count) {
+        super(pieces, sides, initial);
+        this.movingside = movingside;
+
+        this.count = count;
+    }
+
+    private Board initialize() {
+        var board = this;
+        final PieceKind[] officers = {ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK};
+        for (int file = 0; file < 8; file++) {
+            board = board.placePiece(Side.WHITE, PAWN, FIELDS[square(file, 1)])
+                    .placePiece(Side.WHITE, officers[file], FIELDS[square(file, 0)])
+                    .placePiece(Side.BLACK, PAWN, FIELDS[square(file, 6)])
+                    .placePiece(Side.BLACK, officers[file], FIELDS[square(file, 7)]);
+        }
+
+        return board;
+    }
+
+    public Board removePiece(Field position) {
+        final var square = position.ordinal();
+        final var piecesCopy = pieces.clone();
+        final var sidesCopy = sides.clone();
+
+        final var kind = kind(square);
+        if (kind >= 0) {
+            piecesCopy[kind] &= ~bit(square);
+            sidesCopy[kind / KINDS.length] &= ~bit(square);
+        }
+
+        return new Board(movingside, piecesCopy, sidesCopy, initial & ~bit(square), count);
+    }
+
+    public Board placePiece(Side side, PieceKind piece, Field position) {
+        piece(position).ifPresent(previousPiece -> {
+            throw new RuntimeException("There is already " + previousPiece + " in field " + position);
+        });
+
+        final var square = position.ordinal();
+        final var piecesCopy = pieces.clone();
+        final var sidesCopy = sides.clone();
+        piecesCopy[index(side, piece)] |= bit(square);
+        sidesCopy[side.ordinal()] |= bit(square);
+
+        return new Board(movingside, piecesCopy, sidesCopy, piece == PAWN ? initial | bit(square) : initial, count);
+    }
+
+    public Board perform(Move move) {
+        final Piece piece = piece(move.from()).orElseThrow(() -> new RuntimeException("No piece in field " + move.from()));
+
+        if (piece.side() != movingside) {
+            throw new RuntimeException("Its " + movingside + "'s turn");
+        }
+
+        final var target = piece(move.to());
+
+        if (target.filter(enemy -> enemy.side() == piece.side()).isPresent()) {
+            throw new RuntimeException("Cannot capture " + target.get() + " with " + piece);
+        }
+
+        final var from = bit(move.from());
+        final var to = bit(move.to());
+        final var mover = index(movingside, piece.type());
+        final var placed = piece.type() == PAWN && promotes(movingside, move.to().ordinal()) ? index(movingside, move.promoted()) : mover;
+
+        final var piecesCopy = pieces.clone();
+        final var sidesCopy = sides.clone();
+        target.ifPresent(enemy -> piecesCopy[index(enemy.side(), enemy.type())] &= ~to);
+        sidesCopy[movingside.flip().ordinal()] &= ~to;
+        piecesCopy[mover] &= ~from;
+        piecesCopy[placed] |= to;
+        sidesCopy[movingside.ordinal()] = sidesCopy[movingside.ordinal()] & ~from | to;
+
+        return new Board(movingside.flip(), piecesCopy, sidesCopy, initial & ~(from | to), count + 1);
+    }
+
+    public List<Move> moves() {
+        if (moves == null) {
+            final var candidates = moves(movingside);
+            final var legal = new ArrayList<Move>(candidates.size());
+            for (Move move : candidates) {
+                if (!perform(move).attacksKing(movingside)) legal.add(move);
+            }
+
+            moves = unmodifiableList(legal);
+        }
+
+        return moves;
+    }
+
+    Optional<Piece> piece(Field field) {
+        return Optional.ofNullable(piece(field.ordinal()));
+    }
+
+    public Side side() {
+        return movingside;
+    }
+
+    public Integer count() {
+        return count;
+    }
+
+    public boolean gameover() {
+        return moves().isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Board board = (Board) o;
+
+        return Arrays.equals(pieces, board.pieces);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(pieces);
+    }
+}
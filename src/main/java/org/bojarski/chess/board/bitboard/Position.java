@@ -0,0 +1,200 @@
+package org.bojarski.chess.board.bitboard;
+
+import org.bojarski.chess.board.map.Field;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.Piece;
+import org.bojarski.chess.board.map.PieceKind;
+import org.bojarski.chess.board.map.Side;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.bojarski.chess.board.bitboard.Bitboards.*;
+import static org.bojarski.chess.board.map.PieceKind.*;
+
+abstract class Position {
+    static final PieceKind[] KINDS = PieceKind.values();
+    static final Side[] SIDES = Side.values();
+
+    final long[] pieces;
+    final long[] sides;
+    long initial;
+
+    Position(long[] pieces, long[] sides, long initial) {
+        this.pieces = pieces;
+        this.sides = sides;
+        this.initial = initial;
+    }
+
+    List<Move> moves(Side side) {
+        final var moves = new ArrayList<Move>();
+        final var own = sides[side.ordinal()];
+        final var occupancy = occupancy();
+
+        for (long pawns = pieces[index(side, PAWN)]; pawns != 0; pawns &= pawns - 1) {
+            pawnMoves(moves, side, first(pawns));
+        }
+        for (long knights = pieces[index(side, KNIGHT)]; knights != 0; knights &= knights - 1) {
+            final var square = first(knights);
+            generateMoves(moves, square, knight(square) & ~own);
+        }
+        for (long bishops = pieces[index(side, BISHOP)]; bishops != 0; bishops &= bishops - 1) {
+            final var square = first(bishops);
+            generateMoves(moves, square, bishop(square, occupancy) & ~own);
+        }
+        for (long rooks = pieces[index(side, ROOK)]; rooks != 0; rooks &= rooks - 1) {
+            final var square = first(rooks);
+            generateMoves(moves, square, rook(square, occupancy) & ~own);
+        }
+        for (long queens = pieces[index(side, QUEEN)]; queens != 0; queens &= queens - 1) {
+            final var square = first(queens);
+            generateMoves(moves, square, queen(square, occupancy) & ~own);
+        }
+        for (long kings = pieces[index(side, KING)]; kings != 0; kings &= kings - 1) {
+            final var square = first(kings);
+            generateMoves(moves, square, king(square) & ~own);
+        }
+
+        return moves;
+    }
+
+    private void generateMoves(List<Move> moves, int square, long targets) {
+        final var position = FIELDS[square];
+        final var occupancy = occupancy();
+
+        for (; targets != 0; targets &= targets - 1) {
+            final var destination = first(targets);
+            if ((occupancy & bit(destination)) == 0) {
+                moves.add(Move.move(position, FIELDS[destination]));
+            } else {
+                moves.add(capture(position, destination));
+            }
+        }
+    }
+
+    private void pawnMoves(List<Move> moves, Side side, int square) {
+        final var position = FIELDS[square];
+        final var occupancy = occupancy();
+        final var advanced = rank(square) + side.rankAdvanceDirection();
+
+        if (advanced < 0 || advanced > 7) return;
+
+        final var single = square(file(square), advanced);
+        if ((occupancy & bit(single)) == 0) {
+            advance(moves, side, position, single);
+
+            final var twice = advanced + side.rankAdvanceDirection();
+            if ((initial & bit(square)) != 0 && twice >= 0 && twice <= 7 && (occupancy & bit(square(file(square), twice))) == 0) {
+                advance(moves, side, position, square(file(square), twice));
+            }
+        }
+
+        final var enemies = sides[side.flip().ordinal()];
+        if (file(square) > 0 && (enemies & bit(square(file(square) - 1, advanced))) != 0) {
+            pawnCapture(moves, side, position, square(file(square) - 1, advanced));
+        }
+        if (file(square) < 7 && (enemies & bit(square(file(square) + 1, advanced))) != 0) {
+            pawnCapture(moves, side, position, square(file(square) + 1, advanced));
+        }
+    }
+
+    private void advance(List<Move> moves, Side side, Field position, int destination) {
+        final var field = FIELDS[destination];
+        if (promotes(side, destination)) {
+            moves.add(Move.queenPromotion(position, field, null));
+            moves.add(Move.knightPromotion(position, field, null));
+            moves.add(Move.rookPromotion(position, field, null));
+            moves.add(Move.bishopPromotion(position, field, null));
+        } else {
+            moves.add(Move.move(position, field));
+        }
+    }
+
+    private void pawnCapture(List<Move> moves, Side side, Field position, int destination) {
+        final var field = FIELDS[destination];
+        if (promotes(side, destination)) {
+            final var enemy = piece(destination);
+            moves.add(Move.queenPromotion(position, field, enemy));
+            moves.add(Move.knightPromotion(position, field, enemy));
+            moves.add(Move.rookPromotion(position, field, enemy));
+            moves.add(Move.bishopPromotion(position, field, enemy));
+        } else {
+            moves.add(capture(position, destination));
+        }
+    }
+
+    private Move capture(Field position, int destination) {
+        final var enemy = piece(destination);
+        return enemy.type() == KING ? Move.check(position, FIELDS[destination], enemy) : Move.capture(position, FIELDS[destination], enemy);
+    }
+
+    boolean attacksKing(Side side) {
+        for (long kings = pieces[index(side, KING)]; kings != 0; kings &= kings - 1) {
+            if (attacked(first(kings), side.flip())) return true;
+        }
+
+        return false;
+    }
+
+    boolean attacked(int square, Side by) {
+        final var occupancy = occupancy();
+        final var queens = pieces[index(by, QUEEN)];
+
+        return (knight(square) & pieces[index(by, KNIGHT)]) != 0
+                || (king(square) & pieces[index(by, KING)]) != 0
+                || (pawn(by.flip(), square) & pieces[index(by, PAWN)]) != 0
+                || (bishop(square, occupancy) & (pieces[index(by, BISHOP)] | queens)) != 0
+                || (rook(square, occupancy) & (pieces[index(by, ROOK)] | queens)) != 0;
+    }
+
+    static boolean promotes(Side side, int square) {
+        return Side.BLACK == side && rank(square) == 0 || Side.WHITE == side && rank(square) == 7;
+    }
+
+    static int index(Side side, PieceKind kind) {
+        return side.ordinal() * KINDS.length + kind.ordinal();
+    }
+
+    int kind(int square) {
+        for (int index = 0; index < pieces.length; index++) {
+            if ((pieces[index] & bit(square)) != 0) return index;
+        }
+
+        return -1;
+    }
+
+    long occupancy() {
+        return sides[0] | sides[1];
+    }
+
+    Piece piece(int square) {
+        final var index = kind(square);
+        return index < 0 ? null : KINDS[index % KINDS.length].of(SIDES[index / KINDS.length], FIELDS[square]);
+    }
+
+    public Collection<Piece> pieces() {
+        final var result = new ArrayList<Piece>(Long.bitCount(occupancy()));
+        for (long occupied = occupancy(); occupied != 0; occupied &= occupied - 1) {
+            result.add(piece(first(occupied)));
+        }
+
+        return result;
+    }
+
+    public String print() {
+        final var board = new StringBuilder("   a  b  c  d  e  f  g  h   \n");
+
+        for (int rank = 7; rank >= 0; rank--) {
+            board.append(rank + 1).append(' ');
+            for (int file = 0; file < 8; file++) {
+                final var piece = piece(square(file, rank));
+                final var code = piece == null ? " " : piece.type().code();
+                board.append('[').append(piece != null && piece.side() == Side.BLACK ? code.toLowerCase() : code).append(']');
+            }
+            board.append(' ').append(rank + 1).append('\n');
+        }
+
+        return board.append("   a  b  c  d  e  f  g  h  \n").toString();
+    }
+}
@@ -0,0 +1,282 @@
+package org.bojarski.chess.board.bitboard;
+
+import org.bojarski.chess.board.map.Field;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.PieceKind;
+import org.bojarski.chess.board.map.PieceSquare;
+import org.bojarski.chess.board.map.Side;
+import org.bojarski.chess.board.map.Zobrist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+import static org.bojarski.chess.board.bitboard.Bitboards.bit;
+import static org.bojarski.chess.board.bitboard.Bitboards.first;
+import static org.bojarski.chess.board.map.PieceKind.KING;
+import static org.bojarski.chess.board.map.PieceKind.PAWN;
+
+// make and unmake on one set of bitboards; key, pawn key and score follow every move the way the map board keeps them,
+// and are restored from a stack on unmake so a search ends on exactly the state it started from
+public class SearchBoard extends Position {
+    public static SearchBoard of(Board board) {
+        return new SearchBoard(board.side(), board.pieces.clone(), board.sides.clone(), board.initial, board.count());
+    }
+
+    public static SearchBoard of(org.bojarski.chess.board.map.Board board) {
+        return of(Board.of(board));
+    }
+
+    public SearchBoard copy() {
+        return new SearchBoard(movingside, pieces.clone(), sides.clone(), initial, count);
+    }
+
+    private Side movingside;
+    private int count;
+    private long key;
+    private long pawnKey;
+    private double middlegame;
+    private double endgame;
+    private int phase;
+
+    private List<Move> moves;
+    private long generated;
+    private long generatedOccupancy;
+
+    private long[] initials = new long[64];
+    private int[] movers = new int[64];
+    private int[] captures = new int[64];
+    private long[] keys = new long[64];
+    private long[] pawnKeys = new long[64];
+    private double[] middlegames = new double[64];
+    private double[] endgames = new double[64];
+    private int[] phases = new int[64];
+    private int ply;
+
+    private SearchBoard(Side movingside, long[] pieces, long[] sides, long initial, int count) {
+        super(pieces, sides, initial);
+        this.movingside = movingside;
+        this.count = count;
+        this.key = movingside == Side.WHITE ? 0L : Zobrist.SIDE;
+
+        for (long occupied = occupancy(); occupied != 0; occupied &= occupied - 1) {
+            final var square = first(occupied);
+            final var piece = kind(square);
+            key ^= Zobrist.key(piece, (initial & bit(square)) != 0, square);
+            pawnKey ^= Zobrist.pawnKey(piece, square);
+            middlegame += PieceSquare.middlegame(piece, square);
+            endgame += PieceSquare.endgame(piece, square);
+            phase += PieceSquare.phase(piece);
+        }
+    }
+
+    public void make(Move move) {
+        final var from = move.from().ordinal();
+        final var to = move.to().ordinal();
+        final var mover = kind(from);
+
+        if (mover < 0) {
+            throw new RuntimeException("No piece in field " + move.from());
+        }
+        if (mover / KINDS.length != movingside.ordinal()) {
+            throw new RuntimeException("Its " + movingside + "'s turn");
+        }
+
+        final var captured = kind(to);
+
+        if (captured >= 0 && captured / KINDS.length == movingside.ordinal()) {
+            throw new RuntimeException("Cannot capture " + piece(to) + " with " + piece(from));
+        }
+
+        if (ply == initials.length) {
+            initials = Arrays.copyOf(initials, 2 * ply);
+            movers = Arrays.copyOf(movers, 2 * ply);
+            captures = Arrays.copyOf(captures, 2 * ply);
+            keys = Arrays.copyOf(keys, 2 * ply);
+            pawnKeys = Arrays.copyOf(pawnKeys, 2 * ply);
+            middlegames = Arrays.copyOf(middlegames, 2 * ply);
+            endgames = Arrays.copyOf(endgames, 2 * ply);
+            phases = Arrays.copyOf(phases, 2 * ply);
+        }
+        initials[ply] = initial;
+        movers[ply] = mover;
+        captures[ply] = captured;
+        keys[ply] = key;
+        pawnKeys[ply] = pawnKey;
+        middlegames[ply] = middlegame;
+        endgames[ply] = endgame;
+        phases[ply] = phase;
+        ply++;
+
+        final var placed = mover == index(movingside, PAWN) && promotes(movingside, to) ? index(movingside, move.promoted()) : mover;
+        if (captured >= 0) {
+            pieces[captured] &= ~bit(to);
+            sides[movingside.flip().ordinal()] &= ~bit(to);
+            remove(captured, to);
+        }
+        remove(mover, from);
+        pieces[mover] &= ~bit(from);
+        pieces[placed] |= bit(to);
+        sides[movingside.ordinal()] ^= bit(from) | bit(to);
+        initial &= ~(bit(from) | bit(to));
+        place(placed, to);
+
+        movingside = movingside.flip();
+        key ^= Zobrist.SIDE;
+        count++;
+    }
+
+    private void remove(int piece, int square) {
+        key ^= Zobrist.key(piece, (initial & bit(square)) != 0, square);
+        pawnKey ^= Zobrist.pawnKey(piece, square);
+        middlegame -= PieceSquare.middlegame(piece, square);
+        endgame -= PieceSquare.endgame(piece, square);
+        phase -= PieceSquare.phase(piece);
+    }
+
+    private void place(int piece, int square) {
+        key ^= Zobrist.key(piece, false, square);
+        pawnKey ^= Zobrist.pawnKey(piece, square);
+        middlegame += PieceSquare.middlegame(piece, square);
+        endgame += PieceSquare.endgame(piece, square);
+        phase += PieceSquare.phase(piece);
+    }
+
+    public void unmake(Move move) {
+        if (ply == 0) {
+            throw new RuntimeException("No move to unmake");
+        }
+
+        ply--;
+        movingside = movingside.flip();
+        count--;
+
+        final var from = move.from().ordinal();
+        final var to = move.to().ordinal();
+
+        pieces[kind(to)] &= ~bit(to);
+        pieces[movers[ply]] |= bit(from);
+        sides[movingside.ordinal()] ^= bit(from) | bit(to);
+        if (captures[ply] >= 0) {
+            pieces[captures[ply]] |= bit(to);
+            sides[movingside.flip().ordinal()] |= bit(to);
+        }
+        initial = initials[ply];
+        key = keys[ply];
+        pawnKey = pawnKeys[ply];
+        middlegame = middlegames[ply];
+        endgame = endgames[ply];
+        phase = phases[ply];
+    }
+
+    // the turn goes over without a move, as null move pruning asks; the same call hands it back
+    public void pass() {
+        movingside = movingside.flip();
+        key ^= Zobrist.SIDE;
+    }
+
+    // the search asks for the moves of a node twice, once to see whether the game is over; the last list is kept until
+    // the position changes
+    public List<Move> moves() {
+        if (moves != null && generated == key && generatedOccupancy == occupancy()) return moves;
+
+        final var candidates = moves(movingside);
+        final var legal = new ArrayList<Move>(candidates.size());
+        for (Move move : candidates) {
+            if (legal(move)) legal.add(move);
+        }
+
+        moves = unmodifiableList(legal);
+        generated = key;
+        generatedOccupancy = occupancy();
+
+        return moves;
+    }
+
+    // only the bitboards are moved to look at the king, the kind a pawn promotes to cannot uncover it
+    private boolean legal(Move move) {
+        final var from = bit(move.from().ordinal());
+        final var to = bit(move.to().ordinal());
+        final var own = movingside.ordinal();
+        final var enemy = movingside.flip().ordinal();
+        final var mover = kind(move.from().ordinal());
+        final var captured = kind(move.to().ordinal());
+
+        if (captured >= 0) pieces[captured] &= ~to;
+        pieces[mover] ^= from | to;
+        sides[own] ^= from | to;
+        sides[enemy] &= ~to;
+
+        final var legal = !attacksKing(movingside);
+
+        sides[enemy] |= captured >= 0 ? to : 0L;
+        sides[own] ^= from | to;
+        pieces[mover] ^= from | to;
+        if (captured >= 0) pieces[captured] |= to;
+
+        return legal;
+    }
+
+    public boolean check() {
+        return attacksKing(movingside);
+    }
+
+    // passing is unsound in check and when only the king and pawns are left to move
+    public boolean zugzwang() {
+        final var officers = sides[movingside.ordinal()] & ~pieces[index(movingside, PAWN)] & ~pieces[index(movingside, KING)];
+
+        return officers == 0 || check();
+    }
+
+    public PieceKind type(Field field) {
+        final var index = kind(field.ordinal());
+
+        return index < 0 ? null : KINDS[index % KINDS.length];
+    }
+
+    public long pawns(Side side) {
+        return pieces[index(side, PAWN)];
+    }
+
+    public Side side() {
+        return movingside;
+    }
+
+    public long key() {
+        return key;
+    }
+
+    public long pawnKey() {
+        return pawnKey;
+    }
+
+    // material and placement from white's point of view
+    public double score() {
+        return PieceSquare.taper(middlegame, endgame, phase);
+    }
+
+    public Integer count() {
+        return count;
+    }
+
+    public boolean gameover() {
+        return moves().isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SearchBoard board = (SearchBoard) o;
+
+        return movingside == board.movingside && count == board.count && initial == board.initial &&
+                Arrays.equals(pieces, board.pieces) && Arrays.equals(sides, board.sides);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(pieces);
+    }
+}
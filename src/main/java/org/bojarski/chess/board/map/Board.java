@@ -5,31 +5,139 @@ import java.util.*;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toUnmodifiableList;
+import static org.bojarski.chess.board.bitboard.Bitboards.bit;
 
 public class Board {
+    // fen letters of the piece kinds in declaration order
+    private static final String FEN = "prnbqk";
+    private static final PieceKind[] KINDS = PieceKind.values();
 
     public static Board initialized() {
-        return board(Side.WHITE, Map.of(), 0).initialize();
+        return board(Side.WHITE, new EnumMap<>(Field.class), 0L, 0L, 0L, 0.0, 0.0, 0, 0, 0).initialize();
     }
     public static Board empty() {
-        return board(Side.WHITE, Map.of(), 0);
+        return board(Side.WHITE, new EnumMap<>(Field.class), 0L, 0L, 0L, 0.0, 0.0, 0, 0, 0);
     }
-    private static Board board(Side side, Map<Field, Piece> pieces, Integer count) {
-        return new Board(side, pieces, count);
+
+    // a single pass over the text; castling and en passant fields are skipped as the engine plays neither,
+    // pawns standing on their starting rank may still advance two fields, missing move counters read as 0 1
+    public static Board fromFen(String fen) {
+        final var pieces = new EnumMap<Field, Piece>(Field.class);
+        long occupancy = 0L, key = 0L, pawnKey = 0L;
+        double middlegame = 0.0, endgame = 0.0;
+        int phase = 0;
+
+        var file = 0;
+        var rank = 7;
+        var index = skip(fen, 0);
+        for (; index < fen.length() && fen.charAt(index) != ' '; index++) {
+            final var symbol = fen.charAt(index);
+            if (symbol == '/') {
+                if (file != 8 || rank == 0) {
+                    throw new IllegalArgumentException("Malformed placement in FEN " + fen);
+                }
+                file = 0;
+                rank--;
+                continue;
+            }
+            if (symbol >= '1' && symbol <= '8') {
+                file += symbol - '0';
+                if (file > 8) {
+                    throw new IllegalArgumentException("Rank " + (rank + 1) + " is too long in FEN " + fen);
+                }
+                continue;
+            }
+
+            final var kind = FEN.indexOf(Character.toLowerCase(symbol));
+            if (kind < 0 || file > 7) {
+                throw new IllegalArgumentException("Unexpected " + symbol + " in FEN " + fen);
+            }
+
+            final var side = Character.isUpperCase(symbol) ? Side.WHITE : Side.BLACK;
+            final var position = Field.field(file, rank).orElseThrow();
+            final var piece = KINDS[kind] == PieceKind.PAWN
+                    ? new Pawn(side, position, rank == (side == Side.WHITE ? 1 : 6))
+                    : KINDS[kind].of(side, position);
+
+            pieces.put(position, piece);
+            occupancy |= bit(position);
+            key ^= Zobrist.key(piece);
+            pawnKey ^= Zobrist.pawnKey(piece);
+            middlegame += PieceSquare.middlegame(piece);
+            endgame += PieceSquare.endgame(piece);
+            phase += PieceSquare.phase(piece);
+            file++;
+        }
+        if (file != 8 || rank != 0) {
+            throw new IllegalArgumentException("Incomplete placement in FEN " + fen);
+        }
+
+        index = skip(fen, index);
+        if (index >= fen.length() || (fen.charAt(index) != 'w' && fen.charAt(index) != 'b')) {
+            throw new IllegalArgumentException("No side to move in FEN " + fen);
+        }
+        final var side = fen.charAt(index) == 'w' ? Side.WHITE : Side.BLACK;
+
+        // castling and en passant
+        index++;
+        for (int field = 0; field < 2; field++) {
+            index = skip(fen, index);
+            while (index < fen.length() && fen.charAt(index) != ' ') index++;
+        }
+
+        final var counters = new int[2];
+        for (int counter = 0; counter < counters.length; counter++) {
+            index = skip(fen, index);
+            for (; index < fen.length() && fen.charAt(index) != ' '; index++) {
+                final var digit = fen.charAt(index) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IllegalArgumentException("Malformed move number in FEN " + fen);
+                }
+                counters[counter] = 10 * counters[counter] + digit;
+            }
+        }
+
+        final var count = 2 * (Math.max(counters[1], 1) - 1) + side.ordinal();
+        return board(side, pieces, occupancy, side == Side.WHITE ? key : key ^ Zobrist.SIDE, pawnKey, middlegame, endgame, phase, count, counters[0]);
+    }
+
+    private static int skip(String fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ') index++;
+
+        return index;
+    }
+
+    private static Board board(Side side, Map<Field, Piece> pieces, long occupancy, long key, long pawnKey, double middlegame, double endgame, int phase, Integer count, int halfmove) {
+        return new Board(side, pieces, occupancy, key, pawnKey, middlegame, endgame, phase, count, halfmove);
     }
 
     private final Map<Field, Piece> pieces;
+    private final long occupancy;
+    private final long key;
+    private final long pawnKey;
+    private final double middlegame;
+    private final double endgame;
+    private final int phase;
     private final Side movingside;
 
     private final Integer count;
+    private final int halfmove;
 
     private List<Move> moves;
+    private KingSafety safety;
 
-    private Board(Side movingside, Map<Field, Piece> pieces, Integer count) {
+    private Board(Side movingside, Map<Field, Piece> pieces, long occupancy, long key, long pawnKey, double middlegame, double endgame, int phase, Integer count, int halfmove) {
         this.movingside = movingside;
 
         this.pieces = pieces;
+        this.occupancy = occupancy;
+        this.key = key;
+        this.pawnKey = pawnKey;
+        this.middlegame = middlegame;
+        this.endgame = endgame;
+        this.phase = phase;
         this.count = count;
+        this.halfmove = halfmove;
     }
 
     private Board initialize() {
@@ -80,10 +188,17 @@ public class Board {
     }
 
     public Board removePiece(Field position) {
-        final var piecesCopy = new HashMap<>(pieces);
-        piecesCopy.remove(position);
+        final var piecesCopy = new EnumMap<>(pieces);
+        final var removedPiece = piecesCopy.remove(position);
+        if (removedPiece == null) {
+            return board(movingside, piecesCopy, occupancy, key, pawnKey, middlegame, endgame, phase, count, halfmove);
+        }
 
-        return board(movingside, piecesCopy, count);
+        return board(movingside, piecesCopy, occupancy & ~bit(position), key ^ Zobrist.key(removedPiece), pawnKey ^ Zobrist.pawnKey(removedPiece),
+                middlegame - PieceSquare.middlegame(removedPiece),
+                endgame - PieceSquare.endgame(removedPiece),
+                phase - PieceSquare.phase(removedPiece),
+                count, halfmove);
     }
 
     public Board placePiece(Side side, PieceKind piece, Field position) {
@@ -92,10 +207,14 @@ public class Board {
         });
 
         final var placedPiece = piece.of(side, position);
-        final var piecesCopy = new HashMap<>(pieces);
+        final var piecesCopy = new EnumMap<>(pieces);
         piecesCopy.put(placedPiece.position, placedPiece);
 
-        return board(movingside, piecesCopy, count);
+        return board(movingside, piecesCopy, occupancy | bit(position), key ^ Zobrist.key(placedPiece), pawnKey ^ Zobrist.pawnKey(placedPiece),
+                middlegame + PieceSquare.middlegame(placedPiece),
+                endgame + PieceSquare.endgame(placedPiece),
+                phase + PieceSquare.phase(placedPiece),
+                count, halfmove);
     }
 
     public Board perform(Move move) {
@@ -111,43 +230,99 @@ public class Board {
             throw new RuntimeException("Cannot capture " + target.get() + " with " + piece);
         }
 
-        final var piecesCopy = new HashMap<>(pieces);
+        final var piecesCopy = new EnumMap<>(pieces);
         piecesCopy.remove(piece.position);
         final var movedPiece = piece.perform(move, this);
         piecesCopy.put(movedPiece.position, movedPiece);
 
-        return board(movingside.flip(), piecesCopy, count + 1);
+        final var capturedKey = target.isPresent() ? Zobrist.key(target.get()) : 0L;
+        final var movedKey = key ^ Zobrist.key(piece) ^ Zobrist.key(movedPiece) ^ capturedKey ^ Zobrist.SIDE;
+        final var capturedPawnKey = target.isPresent() ? Zobrist.pawnKey(target.get()) : 0L;
+        final var movedPawnKey = pawnKey ^ Zobrist.pawnKey(piece) ^ Zobrist.pawnKey(movedPiece) ^ capturedPawnKey;
+
+        var movedMiddlegame = middlegame - PieceSquare.middlegame(piece) + PieceSquare.middlegame(movedPiece);
+        var movedEndgame = endgame - PieceSquare.endgame(piece) + PieceSquare.endgame(movedPiece);
+        var movedPhase = phase - PieceSquare.phase(piece) + PieceSquare.phase(movedPiece);
+        if (target.isPresent()) {
+            movedMiddlegame -= PieceSquare.middlegame(target.get());
+            movedEndgame -= PieceSquare.endgame(target.get());
+            movedPhase -= PieceSquare.phase(target.get());
+        }
+
+        // pawn moves and captures restart the count towards the fifty move rule
+        final var movedHalfmove = piece.type() == PieceKind.PAWN || target.isPresent() ? 0 : halfmove + 1;
+
+        return board(movingside.flip(), piecesCopy, occupancy & ~bit(move.from()) | bit(move.to()), movedKey, movedPawnKey, movedMiddlegame, movedEndgame, movedPhase, count + 1, movedHalfmove);
+    }
+
+    public Board pass() {
+        return board(movingside.flip(), pieces, occupancy, key ^ Zobrist.SIDE, pawnKey, middlegame, endgame, phase, count, halfmove);
     }
 
     public List<Move> moves() {
         if (moves == null) {
             moves = moves(movingside).stream()
-                    .filter(move -> perform(move)
-                            .moves(movingside.flip()).stream()
-                            .map(Move::type)
-                            .noneMatch(MoveType::check))
+                    .filter(safety()::legal)
                     .collect(toUnmodifiableList());
         }
 
         return moves;
     }
 
-    private List<Move> moves(Side side) {
+    List<Move> moves(Side side) {
         return pieces.values().stream()
                 .filter(piece -> piece.side() == side)
                 .flatMap(piece -> piece.moves(this).stream())
                 .collect(toList());
     }
 
+    public boolean check() {
+        return safety().check();
+    }
+
+    private KingSafety safety() {
+        if (safety == null) {
+            safety = new KingSafety(this, movingside);
+        }
+
+        return safety;
+    }
+
+    static boolean capturesKing(Move move) {
+        return move.captured() != null && move.captured().type() == PieceKind.KING;
+    }
+
     public Side side() {
         return movingside;
     }
 
+    public long key() {
+        return key;
+    }
+
+    public long pawnKey() {
+        return pawnKey;
+    }
+
+    // material and placement from white's point of view, kept up to date by every change to the board
+    public double score() {
+        return PieceSquare.taper(middlegame, endgame, phase);
+    }
+
     public Integer count() {
         return count;
     }
 
-    Optional<Piece> piece(Field field) {
+    // half moves since the last pawn move or capture
+    public int halfmove() {
+        return halfmove;
+    }
+
+    long occupancy() {
+        return occupancy;
+    }
+
+    public Optional<Piece> piece(Field field) {
         return Optional.ofNullable(pieces.get(field));
     }
 
@@ -159,6 +334,34 @@ public class Board {
         return pieces.values();
     }
 
+    public String toFen() {
+        final var fen = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            var empty = 0;
+            for (int file = 0; file < 8; file++) {
+                final var piece = pieces.get(Field.field(file, rank).orElseThrow());
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+
+                if (empty > 0) fen.append(empty);
+                empty = 0;
+                final var symbol = FEN.charAt(piece.type().ordinal());
+                fen.append(piece.side() == Side.WHITE ? Character.toUpperCase(symbol) : symbol);
+            }
+            if (empty > 0) fen.append(empty);
+            if (rank > 0) fen.append('/');
+        }
+
+        return fen.append(movingside == Side.WHITE ? " w" : " b")
+                .append(" - - ")
+                .append(halfmove)
+                .append(' ')
+                .append(count / 2 + 1)
+                .toString();
+    }
+
     public String print() {
         var board = "   a  b  c  d  e  f  g  h   \n" +
                     "8 [a8][b8][c8][d8][e8][f8][g8][h8] 8\n" +
@@ -193,11 +396,11 @@ public class Board {
 
         Board board = (Board) o;
 
-        return pieces.equals(board.pieces);
+        return key == board.key && movingside == board.movingside && pieces.equals(board.pieces);
     }
 
     @Override
     public int hashCode() {
-        return pieces.hashCode();
+        return Long.hashCode(key);
     }
 }
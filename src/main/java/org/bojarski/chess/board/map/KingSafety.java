@@ -0,0 +1,105 @@
+package org.bojarski.chess.board.map;
+
+import org.bojarski.chess.board.bitboard.Magic;
+
+import static java.lang.Long.bitCount;
+import static org.bojarski.chess.board.bitboard.Bitboards.*;
+
+// pins and checkers are computed once per position, candidates are then validated without generating the reply
+class KingSafety {
+    private final Board board;
+    private final Side side;
+
+    private final long occupancy;
+    private final long pawns;
+    private final long knights;
+    private final long diagonals;
+    private final long orthogonals;
+    private final long kings;
+
+    private final int king;
+    private final int count;
+    private final long checkers;
+    private final long pinned;
+
+    KingSafety(Board board, Side side) {
+        this.board = board;
+        this.side = side;
+        this.occupancy = board.occupancy();
+
+        long pawns = 0, knights = 0, diagonals = 0, orthogonals = 0, kings = 0, own = 0;
+        for (Piece piece : board.pieces()) {
+            final var square = bit(piece.position());
+            if (piece.side() == side) {
+                if (piece.type() == PieceKind.KING) own |= square;
+                continue;
+            }
+
+            switch (piece.type()) {
+                case PAWN: pawns |= square; break;
+                case KNIGHT: knights |= square; break;
+                case BISHOP: diagonals |= square; break;
+                case ROOK: orthogonals |= square; break;
+                case QUEEN: diagonals |= square; orthogonals |= square; break;
+                case KING: kings |= square; break;
+            }
+        }
+
+        this.pawns = pawns;
+        this.knights = knights;
+        this.diagonals = diagonals;
+        this.orthogonals = orthogonals;
+        this.kings = kings;
+
+        this.count = bitCount(own);
+        this.king = first(own);
+        this.checkers = count == 1 ? attackers(king, occupancy) : 0L;
+        this.pinned = count == 1 ? pinned() : 0L;
+    }
+
+    boolean check() {
+        return checkers != 0;
+    }
+
+    boolean legal(Move move) {
+        if (count == 0) return true;
+        if (count > 1) return board.perform(move).moves(side.flip()).stream().noneMatch(Board::capturesKing);
+
+        final var from = move.from().ordinal();
+        final var to = move.to().ordinal();
+
+        if (from == king) {
+            return attackers(to, occupancy & ~bit(king)) == 0;
+        }
+        if (bitCount(checkers) > 1) {
+            return false;
+        }
+        if (checkers != 0 && ((checkers | between(king, first(checkers))) & bit(to)) == 0) {
+            return false;
+        }
+
+        return (pinned & bit(from)) == 0 || (line(king, from) & bit(to)) != 0;
+    }
+
+    private long attackers(int square, long occupancy) {
+        return knight(square) & knights
+                | king(square) & kings
+                | pawn(side, square) & pawns
+                | Magic.bishop(square, occupancy) & diagonals
+                | Magic.rook(square, occupancy) & orthogonals;
+    }
+
+    private long pinned() {
+        var pinned = 0L;
+        final var snipers = Magic.rook(king, 0L) & orthogonals | Magic.bishop(king, 0L) & diagonals;
+
+        for (long sniper = snipers; sniper != 0; sniper &= sniper - 1) {
+            final var blockers = between(king, first(sniper)) & occupancy;
+            if (bitCount(blockers) == 1 && (blockers & ~(pawns | knights | diagonals | orthogonals | kings)) != 0) {
+                pinned |= blockers;
+            }
+        }
+
+        return pinned;
+    }
+}
@@ -0,0 +1,103 @@
+package org.bojarski.chess.board.map;
+
+import static org.bojarski.chess.board.map.PieceKind.*;
+
+// long algebraic notation as spoken by uci, e.g. e2e4 or a7a8q, and standard algebraic notation as used by epd and pgn
+public final class Notation {
+
+    private Notation() {
+    }
+
+    public static String uci(Move move) {
+        final var text = move.from().name().toLowerCase() + move.to().name().toLowerCase();
+
+        return move.promoted() == null ? text : text + promotion(move.promoted());
+    }
+
+    public static Move uci(Board board, String text) {
+        return board.moves().stream()
+                .filter(move -> uci(move).equals(text.toLowerCase())
+                        || move.promoted() == QUEEN && uci(move).equals(text.toLowerCase() + 'q'))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Illegal move " + text));
+    }
+
+    public static String san(Board board, Move move) {
+        final var piece = board.piece(move.from()).orElseThrow(() -> new IllegalArgumentException("No piece in field " + move.from()));
+        final var to = move.to().name().toLowerCase();
+        final var san = new StringBuilder(8);
+
+        if (piece.type() == PAWN) {
+            if (move.captured() != null) san.append(file(move.from())).append('x');
+            san.append(to);
+            if (move.promoted() != null) san.append('=').append(Character.toUpperCase(promotion(move.promoted())));
+        } else {
+            san.append(letter(piece.type())).append(disambiguation(board, move, piece.type()));
+            if (move.captured() != null) san.append('x');
+            san.append(to);
+        }
+
+        final var next = board.perform(move);
+        if (next.check()) san.append(next.gameover() ? '#' : '+');
+
+        return san.toString();
+    }
+
+    // check and annotation marks are optional, castling never matches as the engine does not castle
+    public static Move san(Board board, String text) {
+        final var plain = plain(text);
+
+        return board.moves().stream()
+                .filter(move -> plain(san(board, move)).equals(plain))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Illegal move " + text));
+    }
+
+    private static String disambiguation(Board board, Move move, PieceKind kind) {
+        var ambiguous = false;
+        var sameFile = false;
+        var sameRank = false;
+        for (Move other : board.moves()) {
+            if (other.to() != move.to() || other.from() == move.from()) continue;
+            if (board.piece(other.from()).map(Piece::type).orElse(null) != kind) continue;
+
+            ambiguous = true;
+            sameFile |= other.from().getFile() == move.from().getFile();
+            sameRank |= other.from().getRank() == move.from().getRank();
+        }
+
+        if (!ambiguous) return "";
+        if (!sameFile) return String.valueOf(file(move.from()));
+        if (!sameRank) return String.valueOf(rank(move.from()));
+
+        return move.from().name().toLowerCase();
+    }
+
+    private static String plain(String san) {
+        var end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+
+        return san.substring(0, end).replace("=", "");
+    }
+
+    private static char file(Field field) {
+        return (char) ('a' + field.getFile());
+    }
+
+    private static char rank(Field field) {
+        return (char) ('1' + field.getRank());
+    }
+
+    private static char letter(PieceKind kind) {
+        return kind == KNIGHT ? 'N' : kind.code().charAt(0);
+    }
+
+    private static char promotion(PieceKind kind) {
+        switch (kind) {
+            case KNIGHT: return 'n';
+            case BISHOP: return 'b';
+            case ROOK: return 'r';
+            default: return 'q';
+        }
+    }
+}
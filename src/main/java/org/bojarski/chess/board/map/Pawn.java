@@ -16,6 +16,10 @@ public class Pawn extends Piece {
         this.initial = initial;
     }
 
+    public boolean initial() {
+        return initial;
+    }
+
     @Override
     public List<Move> moves(Board board) {
         final List<Move> moves = new ArrayList<>();
@@ -37,19 +41,23 @@ public class Pawn extends Piece {
 
         field(position.getFile() - 1, position.getRank() + side.rankAdvanceDirection())
                 .filter(field -> board.piece(field).filter(this::isEnemy).isPresent())
-                .map(field -> enablesPromotion(field) ? List.of(queenPromotion(position, field, board.piece(field).get()), knightPromotion(position, field, board.piece(field).get()), rookPromotion(position, field, board.piece(field).get()), bishopPromotion(position, field, board.piece(field).get())) : List.of(capture(position, field, board.piece(field).get())))
+                .map(field -> enablesPromotion(field) ? List.of(queenPromotion(position, field, board.piece(field).get()), knightPromotion(position, field, board.piece(field).get()), rookPromotion(position, field, board.piece(field).get()), bishopPromotion(position, field, board.piece(field).get())) : List.of(capture(field, board.piece(field).get())))
                 .orElse(List.of())
                 .forEach(moves::add);
 
         field(position.getFile() + 1, position.getRank() + side.rankAdvanceDirection())
                 .filter(field -> board.piece(field).filter(this::isEnemy).isPresent())
-                .map(field -> enablesPromotion(field) ? List.of(queenPromotion(position, field, board.piece(field).get()), knightPromotion(position, field, board.piece(field).get()), rookPromotion(position, field, board.piece(field).get()), bishopPromotion(position, field, board.piece(field).get())) : List.of(capture(position, field, board.piece(field).get())))
+                .map(field -> enablesPromotion(field) ? List.of(queenPromotion(position, field, board.piece(field).get()), knightPromotion(position, field, board.piece(field).get()), rookPromotion(position, field, board.piece(field).get()), bishopPromotion(position, field, board.piece(field).get())) : List.of(capture(field, board.piece(field).get())))
                 .orElse(List.of())
                 .forEach(moves::add);
 
         return unmodifiableList(moves);
     }
 
+    private Move capture(Field field, Piece enemy) {
+        return enemy.type() == PieceKind.KING ? check(position, field, enemy) : Move.capture(position, field, enemy);
+    }
+
     private List<Move> prepareMove(Field field) {
         return List.of(move(position, field));
     }
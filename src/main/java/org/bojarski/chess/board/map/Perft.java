@@ -0,0 +1,70 @@
+package org.bojarski.chess.board.map;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.experimental.Accessors;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// leaf counts of the legal move tree; the suite follows this engine's rules, so there is no castling and no en passant
+public final class Perft {
+
+    @Value
+    @Accessors(fluent = true)
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Position {
+        private final String name;
+        private final Board board;
+        private final long[] nodes;
+
+        public int depth() {
+            return nodes.length;
+        }
+    }
+
+    public static final List<Position> SUITE = List.of(
+            new Position("initial", Board.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"),
+                    new long[]{20, 400, 8902, 197281}),
+            new Position("pins", Board.fromFen("k3q3/8/8/b7/8/8/3BR3/4K3 w - - 0 1"),
+                    new long[]{12, 285, 4764, 123563}),
+            new Position("promotions", Board.fromFen("4k2r/1P4P1/8/8/8/8/2p5/K7 w - - 0 1"),
+                    new long[]{14, 135, 1671, 23500}),
+            new Position("middlegame", Board.fromFen("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w - - 4 4"),
+                    new long[]{32, 901, 28955, 862064}),
+            new Position("endgame", Board.fromFen("2b4r/8/4k3/8/4K3/5N2/8/R7 w - - 0 1"),
+                    new long[]{26, 445, 9927, 190382})
+    );
+
+    private Perft() {
+    }
+
+    public static long perft(Board board, int depth) {
+        if (depth == 0) return 1;
+
+        final var moves = board.moves();
+        if (depth == 1) return moves.size();
+
+        var nodes = 0L;
+        for (Move move : moves) {
+            nodes += perft(board.perform(move), depth - 1);
+        }
+
+        return nodes;
+    }
+
+    public static Map<Move, Long> divide(Board board, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide needs depth of at least 1, got " + depth);
+        }
+
+        final var nodes = new LinkedHashMap<Move, Long>();
+        for (Move move : board.moves()) {
+            nodes.put(move, perft(board.perform(move), depth - 1));
+        }
+
+        return nodes;
+    }
+}
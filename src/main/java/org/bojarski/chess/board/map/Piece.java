@@ -6,6 +6,8 @@ import lombok.experimental.Accessors;
 import java.util.List;
 
 import static java.util.Objects.requireNonNull;
+import static org.bojarski.chess.board.bitboard.Bitboards.FIELDS;
+import static org.bojarski.chess.board.bitboard.Bitboards.first;
 import static org.bojarski.chess.board.map.Field.field;
 
 @Getter
@@ -47,6 +49,19 @@ public abstract class Piece {
         return false;
     }
 
+    protected void generateMoves(List<Move> moves, long attacks, Board board) {
+        for (; attacks != 0; attacks &= attacks - 1) {
+            final var destination = FIELDS[first(attacks)];
+            final var target = board.piece(destination).orElse(null);
+
+            if (target == null) {
+                moves.add(Move.move(position, destination));
+            } else if (isEnemy(target)) {
+                moves.add(target.type() == PieceKind.KING ? Move.check(position, destination, target) : Move.capture(position, destination, target));
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return String.format("%s %s %s", side, this.getClass().getSimpleName(), position);
@@ -0,0 +1,171 @@
+package org.bojarski.chess.board.map;
+
+// material and placement of a single piece for the middlegame and the endgame, signed so that white pieces
+// count up and black pieces count down; the game phase blends the two from the non-pawn material left on the board
+public final class PieceSquare {
+    public static final int OPENING = 24;
+
+    private static final int KINDS = PieceKind.values().length;
+    private static final double[] MIDDLEGAME = new double[2 * KINDS * 64];
+    private static final double[] ENDGAME = new double[2 * KINDS * 64];
+    private static final double[] MATERIAL = new double[KINDS];
+    private static final int[] PHASES = new int[KINDS];
+
+    private PieceSquare() {
+    }
+
+    public static double middlegame(Piece piece) {
+        return MIDDLEGAME[index(piece)];
+    }
+
+    public static double endgame(Piece piece) {
+        return ENDGAME[index(piece)];
+    }
+
+    // piece is side * kinds + kind, the index bitboard positions keep their piece sets under
+    public static double middlegame(int piece, int square) {
+        return MIDDLEGAME[piece * 64 + square];
+    }
+
+    public static double endgame(int piece, int square) {
+        return ENDGAME[piece * 64 + square];
+    }
+
+    public static int phase(int piece) {
+        return PHASES[piece % KINDS];
+    }
+
+    // middlegame value of a piece kind before its placement is added
+    public static double material(PieceKind kind) {
+        return MATERIAL[kind.ordinal()];
+    }
+
+    public static int phase(Piece piece) {
+        return PHASES[piece.type().ordinal()];
+    }
+
+    public static double taper(double middlegame, double endgame, int phase) {
+        final var weight = Math.min(phase, OPENING);
+
+        return (middlegame * weight + endgame * (OPENING - weight)) / OPENING;
+    }
+
+    private static int index(Piece piece) {
+        return (piece.side().ordinal() * KINDS + piece.type().ordinal()) * 64 + piece.position().ordinal();
+    }
+
+    private static final double[][] pawns = {
+            {0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, 0.0},
+            {0.5,  1.0,  1.0, -2.0, -2.0,  1.0,  1.0, 0.5},
+            {0.5, -0.5, -1.0,  0.0,  0.0, -1.0, -0.5, 0.5},
+            {0.0,  0.0,  0.0,  2.5,  2.5,  0.0,  0.0, 0.0},
+            {0.5,  0.5,  1.0,  2.5,  2.5,  1.0,  0.5, 0.5},
+            {1.0,  1.0,  2.0,  3.0,  3.0,  2.0,  1.0, 1.0},
+            {5.0,  5.0,  5.0,  5.0,  5.0,  5.0,  5.0, 5.0},
+            {0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, 0.0},
+    };
+
+    private static final double[][] endgamepawns = {
+            {0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, 0.0},
+            {0.5,  0.5,  0.5,  0.5,  0.5,  0.5,  0.5, 0.5},
+            {0.5,  0.5,  0.5,  0.5,  0.5,  0.5,  0.5, 0.5},
+            {1.0,  1.0,  1.0,  1.0,  1.0,  1.0,  1.0, 1.0},
+            {2.0,  2.0,  2.0,  2.0,  2.0,  2.0,  2.0, 2.0},
+            {3.5,  3.5,  3.5,  3.5,  3.5,  3.5,  3.5, 3.5},
+            {6.0,  6.0,  6.0,  6.0,  6.0,  6.0,  6.0, 6.0},
+            {0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, 0.0},
+    };
+
+    private static final double[][] horses = {
+            {-5.0, -4.0, -3.0, -3.0, -3.0, -3.0, -4.0, -5.0},
+            {-4.0, -2.0,  0.0,  0.5,  0.5,  0.0, -2.0, -4.0},
+            {-3.0,  0.5,  1.0,  1.5,  1.5,  1.0,  0.5, -3.0},
+            {-3.0,  0.0,  1.5,  2.0,  2.0,  1.5,  0.0, -3.0},
+            {-3.0,  0.5,  1.5,  2.0,  2.0,  1.5,  0.5, -3.0},
+            {-3.0,  0.0,  1.0,  1.5,  1.5,  1.0,  0.0, -3.0},
+            {-4.0, -2.0,  0.0,  0.0,  0.0,  0.0, -2.0, -4.0},
+            {-5.0, -4.0, -3.0, -3.0, -3.0, -3.0, -4.0, -5.0},
+    };
+
+    private static final double[][] bishops = {
+            {-2.0, -1.0, -1.0, -1.0, -1.0, -1.0, -1.0, -2.0},
+            {-1.0,  0.5,  0.0,  0.0,  0.0,  0.0,  0.5, -1.0},
+            {-1.0,  1.0,  1.0,  1.0,  1.0,  1.0,  1.0, -1.0},
+            {-1.0,  0.0,  1.0,  1.0,  1.0,  1.0,  0.0, -1.0},
+            {-1.0,  0.5,  0.5,  1.0,  1.0,  0.5,  0.5, -1.0},
+            {-1.0,  0.0,  0.5,  1.0,  1.0,  0.5,  0.0, -1.0},
+            {-1.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, -1.0},
+            {-2.0, -1.0, -1.0, -1.0, -1.0, -1.0, -1.0, -2.0},
+    };
+
+    private static final double[][] rooks = {
+            { 0.0,  0.0,  0.0,  0.5,  0.5,  0.0,  0.0,  0.0},
+            {-0.5,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, -0.5},
+            {-0.5,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, -0.5},
+            {-0.5,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, -0.5},
+            {-0.5,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, -0.5},
+            {-0.5,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, -0.5},
+            { 0.5,  1.0,  1.0,  1.0,  1.0,  1.0,  1.0,  0.5},
+            { 0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0},
+    };
+
+    private static final double[][] queens = {
+            {-2.0, -1.0, -1.0, -0.5, -0.5, -1.0, -1.0, -2.0},
+            {-1.0,  0.0,  0.5,  0.0,  0.0,  0.0,  0.0, -1.0},
+            {-1.0,  0.5,  0.5,  0.5,  0.5,  0.5,  0.0, -1.0},
+            { 0.0,  0.0,  0.5,  0.5,  0.5,  0.5,  0.0, -0.5},
+            {-0.5,  0.0,  0.5,  0.5,  0.5,  0.5,  0.0, -0.5},
+            {-1.0,  0.0,  0.5,  0.5,  0.5,  0.5,  0.0, -1.0},
+            {-1.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, -1.0},
+            {-2.0, -1.0, -1.0, -0.5, -0.5, -1.0, -1.0, -2.0},
+    };
+
+    private static final double[][] kings = {
+            { 2.0,  3.0,  1.0,  0.0,  0.0,  1.0,  3.0,  2.0},
+            { 2.0,  2.0,  0.0,  0.0,  0.0,  0.0,  2.0,  2.0},
+            {-1.0, -2.0, -2.0, -2.0, -2.0, -2.0, -2.0, -1.0},
+            {-2.0, -3.0, -3.0, -4.0, -4.0, -3.0, -3.0, -2.0},
+            {-3.0, -4.0, -4.0, -5.0, -5.0, -4.0, -4.0, -3.0},
+            {-3.0, -4.0, -4.0, -5.0, -5.0, -4.0, -4.0, -3.0},
+            {-3.0, -4.0, -4.0, -5.0, -5.0, -4.0, -4.0, -3.0},
+            {-3.0, -4.0, -4.0, -5.0, -5.0, -4.0, -4.0, -3.0},
+    };
+
+    private static final double[][] endgamekings = {
+            {-5.0, -3.0, -3.0, -3.0, -3.0, -3.0, -3.0, -5.0},
+            {-3.0, -3.0,  0.0,  0.0,  0.0,  0.0, -3.0, -3.0},
+            {-3.0, -1.0,  2.0,  3.0,  3.0,  2.0, -1.0, -3.0},
+            {-3.0, -1.0,  3.0,  4.0,  4.0,  3.0, -1.0, -3.0},
+            {-3.0, -1.0,  3.0,  4.0,  4.0,  3.0, -1.0, -3.0},
+            {-3.0, -1.0,  2.0,  3.0,  3.0,  2.0, -1.0, -3.0},
+            {-3.0, -2.0, -1.0,  0.0,  0.0, -1.0, -2.0, -3.0},
+            {-5.0, -4.0, -3.0, -2.0, -2.0, -3.0, -4.0, -5.0},
+    };
+
+    static {
+        fill(PieceKind.PAWN, 10.0, pawns, 10.0, endgamepawns, 0);
+        fill(PieceKind.KNIGHT, 30.0, horses, 30.0, horses, 1);
+        fill(PieceKind.BISHOP, 30.0, bishops, 30.0, bishops, 1);
+        fill(PieceKind.ROOK, 40.0, rooks, 40.0, rooks, 2);
+        fill(PieceKind.QUEEN, 90.0, queens, 90.0, queens, 4);
+        fill(PieceKind.KING, 1500.0, kings, 1500.0, endgamekings, 0);
+    }
+
+    // tables are laid out with the first rank on top, black reads them rotated by half a turn
+    private static void fill(PieceKind kind, double middlegame, double[][] middlegames, double endgame, double[][] endgames, int phase) {
+        MATERIAL[kind.ordinal()] = middlegame;
+        PHASES[kind.ordinal()] = phase;
+
+        for (Field field : Field.values()) {
+            final var rank = field.getRank();
+            final var file = field.getFile();
+            final var white = (Side.WHITE.ordinal() * KINDS + kind.ordinal()) * 64 + field.ordinal();
+            final var black = (Side.BLACK.ordinal() * KINDS + kind.ordinal()) * 64 + field.ordinal();
+
+            MIDDLEGAME[white] = middlegame + middlegames[rank][file];
+            ENDGAME[white] = endgame + endgames[rank][file];
+            MIDDLEGAME[black] = -(middlegame + middlegames[7 - rank][7 - file]);
+            ENDGAME[black] = -(endgame + endgames[7 - rank][7 - file]);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.bojarski.chess.board.map;
 
+import org.bojarski.chess.board.bitboard.Magic;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,14 +16,7 @@ public class Queen extends Piece {
     public List<Move> moves(Board board) {
         final var moves = new ArrayList<Move>();
 
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, 0, +i, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, +i, +i, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, +i, 0, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, +i, -i, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, 0, -i, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, -i, -i, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, -i, 0, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, -i, +i, board)) break;
+        generateMoves(moves, Magic.queen(position.ordinal(), board.occupancy()), board);
 
         return unmodifiableList(moves);
     }
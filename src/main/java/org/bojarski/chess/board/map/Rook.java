@@ -1,8 +1,12 @@
 package org.bojarski.chess.board.map;
 
+import org.bojarski.chess.board.bitboard.Magic;
+
 import java.util.ArrayList;
 import java.util.List;
 
+import static java.util.Collections.unmodifiableList;
+
 // TODO implement castling
 public class Rook extends Piece {
     public Rook(Side side, Field position) {
@@ -13,12 +17,9 @@ public class Rook extends Piece {
     public List<Move> moves(Board board) {
         final var moves = new ArrayList<Move>();
 
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, 0, +i, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, +i, 0, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, 0, -i, board)) break;
-        for (int i = 1; i < 8; i++) if (!generateMove(moves, -i, 0, board)) break;
+        generateMoves(moves, Magic.rook(position.ordinal(), board.occupancy()), board);
 
-        return moves;
+        return unmodifiableList(moves);
     }
 
 }
@@ -0,0 +1,63 @@
+package org.bojarski.chess.board.map;
+
+import java.util.Random;
+
+public final class Zobrist {
+    private static final int INITIAL_PAWN = PieceKind.values().length;
+
+    private static final long[][][] PIECES = new long[Side.values().length][INITIAL_PAWN + 1][Field.values().length];
+    public static final long SIDE;
+
+    static {
+        final var random = new Random(0x5A0B217L);
+        for (long[][] kinds : PIECES) {
+            for (long[] fields : kinds) {
+                for (int field = 0; field < fields.length; field++) {
+                    fields[field] = random.nextLong();
+                }
+            }
+        }
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    // piece is side * kinds + kind, the index bitboard positions keep their piece sets under
+    public static long key(int piece, boolean initial, int square) {
+        final var kind = piece % INITIAL_PAWN;
+        return PIECES[piece / INITIAL_PAWN][initial && kind == PieceKind.PAWN.ordinal() ? INITIAL_PAWN : kind][square];
+    }
+
+    public static long pawnKey(int piece, int square) {
+        return piece % INITIAL_PAWN == PieceKind.PAWN.ordinal() ? PIECES[piece / INITIAL_PAWN][PieceKind.PAWN.ordinal()][square] : 0L;
+    }
+
+    static long key(Piece piece) {
+        final var kind = piece instanceof Pawn && ((Pawn) piece).initial() ? INITIAL_PAWN : piece.type().ordinal();
+        return PIECES[piece.side().ordinal()][kind][piece.position().ordinal()];
+    }
+
+    // pawns hash the same whether or not they may still double-step, so the key only follows the pawn structure
+    static long pawnKey(Piece piece) {
+        return piece.type() == PieceKind.PAWN ? PIECES[piece.side().ordinal()][PieceKind.PAWN.ordinal()][piece.position().ordinal()] : 0L;
+    }
+
+    static long pawnKey(Iterable<Piece> pieces) {
+        var key = 0L;
+        for (Piece piece : pieces) {
+            key ^= pawnKey(piece);
+        }
+
+        return key;
+    }
+
+    static long key(Side side, Iterable<Piece> pieces) {
+        var key = side == Side.BLACK ? SIDE : 0L;
+        for (Piece piece : pieces) {
+            key ^= key(piece);
+        }
+
+        return key;
+    }
+}
@@ -0,0 +1,187 @@
+package org.bojarski.epd;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.experimental.Accessors;
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.Notation;
+import org.bojarski.negamax.Budget;
+import org.bojarski.player.ChessPlayer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// positions are streamed to a pool of players, each result is written as one json line as soon as it is known
+@Value
+@Builder(toBuilder = true)
+public class Analysis {
+    private static final int DEPTH = 64;
+    private static final int MEGABYTES = 16;
+
+    private final int depth;
+    private final Duration time;
+    private final int workers;
+    private final int megabytes;
+
+    @Value
+    @Accessors(fluent = true)
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Report {
+        private final long positions;
+        private final long errors;
+        private final long targets;
+        private final long solved;
+        private final long nodes;
+        private final long nanos;
+
+        public double solveRate() {
+            return targets == 0 ? 0.0 : (double) solved / targets;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d positions, %d errors, solved %d of %d (%.1f%%), %d nodes in %dms",
+                    positions, errors, solved, targets, 100 * solveRate(), nodes, nanos / 1000000);
+        }
+    }
+
+    public Report run(BufferedReader input, Writer output) throws IOException, InterruptedException {
+        if (depth <= 0 && time == null) {
+            throw new IllegalStateException("Analysis needs a depth or a time per position");
+        }
+
+        final var count = Math.max(workers, 1);
+        // every worker thread gets its own player, they are all closed once the pool is done
+        final var created = new ConcurrentLinkedQueue<ChessPlayer>();
+        final var players = ThreadLocal.withInitial(() -> {
+            final var player = new ChessPlayer(megabytes > 0 ? megabytes : MEGABYTES);
+            created.add(player);
+            return player;
+        });
+        final var pending = new Semaphore(2 * count);
+        final var pool = Executors.newFixedThreadPool(count);
+        final var counters = new Counters();
+        final var started = System.nanoTime();
+
+        try {
+            var number = 0;
+            for (String line = input.readLine(); line != null; line = input.readLine()) {
+                number++;
+                if (line.isBlank() || line.startsWith("#")) continue;
+
+                pending.acquire();
+                final var current = number;
+                final var text = line;
+                pool.execute(() -> {
+                    try {
+                        write(output, analyse(players.get(), current, text, counters));
+                    } catch (RuntimeException e) {
+                        counters.errors.increment();
+                        write(output, "{\"line\":" + current + ",\"error\":" + quote(String.valueOf(e.getMessage())) + "}");
+                    } finally {
+                        pending.release();
+                    }
+                });
+            }
+        } finally {
+            try {
+                await(pool);
+            } finally {
+                created.forEach(ChessPlayer::close);
+            }
+        }
+
+        return new Report(counters.positions.sum(), counters.errors.sum(), counters.targets.sum(), counters.solved.sum(),
+                counters.nodes.sum(), System.nanoTime() - started);
+    }
+
+    private String analyse(ChessPlayer player, int number, String line, Counters counters) {
+        final var epd = Epd.of(line);
+        final var board = epd.board();
+        final var budget = time == null ? Budget.unlimited() : Budget.of(time, time);
+
+        final var variation = player.findMove(board, depth > 0 ? depth : DEPTH, budget);
+        if (!variation.hasNext()) {
+            throw new IllegalArgumentException("No move to find in " + board.toFen());
+        }
+        final var move = variation.next();
+        final var san = Notation.san(board, move);
+        final var statistics = player.statistics();
+        final var iterations = statistics.iterations();
+        final var score = iterations.isEmpty() ? 0.0 : iterations.get(iterations.size() - 1).score();
+
+        counters.positions.increment();
+        counters.nodes.add(statistics.nodes());
+
+        final var json = new StringBuilder(256)
+                .append("{\"line\":").append(number);
+        if (epd.id() != null) json.append(",\"id\":").append(quote(epd.id()));
+        json.append(",\"fen\":").append(quote(board.toFen()))
+                .append(",\"move\":").append(quote(san))
+                .append(",\"score\":").append(ChessPlayer.centipawns(score))
+                .append(",\"depth\":").append(statistics.depth())
+                .append(",\"nodes\":").append(statistics.nodes())
+                .append(",\"time\":").append(statistics.nanos() / 1000000);
+
+        if (!epd.best().isEmpty()) {
+            final var solved = epd.best().stream().anyMatch(best -> solves(board, best, move));
+            counters.targets.increment();
+            if (solved) counters.solved.increment();
+            json.append(",\"bm\":").append(epd.best().stream().map(Analysis::quote).collect(Collectors.joining(",", "[", "]")))
+                    .append(",\"solved\":").append(solved);
+        }
+
+        return json.append('}').toString();
+    }
+
+    // a best move the board cannot play, such as castling, never counts as solved
+    private static boolean solves(Board board, String best, Move move) {
+        try {
+            return Notation.san(board, best).equals(move);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void write(Writer output, String line) {
+        synchronized (output) {
+            try {
+                output.write(line);
+                output.write(System.lineSeparator());
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void await(ExecutorService pool) throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    private static String quote(String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private static class Counters {
+        private final LongAdder positions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder targets = new LongAdder();
+        private final LongAdder solved = new LongAdder();
+        private final LongAdder nodes = new LongAdder();
+    }
+}
@@ -0,0 +1,83 @@
+package org.bojarski.epd;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.experimental.Accessors;
+import org.bojarski.chess.board.map.Board;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// four fen fields followed by semicolon terminated operations, e.g. ... w - - bm Nf3; id "opening";
+@Value
+@Accessors(fluent = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Epd {
+    private static final int FIELDS = 4;
+
+    private final Board board;
+    private final Map<String, List<String>> operations;
+
+    public static Epd of(String line) {
+        var index = 0;
+        for (int field = 0; field < FIELDS; field++) {
+            while (index < line.length() && line.charAt(index) == ' ') index++;
+            if (index == line.length()) {
+                throw new IllegalArgumentException("EPD needs " + FIELDS + " position fields: " + line);
+            }
+            while (index < line.length() && line.charAt(index) != ' ') index++;
+        }
+
+        return new Epd(Board.fromFen(line.substring(0, index)), operations(line, index));
+    }
+
+    public String id() {
+        final var id = operations.get("id");
+
+        return id == null || id.isEmpty() ? null : id.get(0);
+    }
+
+    public List<String> best() {
+        return operations.getOrDefault("bm", List.of());
+    }
+
+    private static Map<String, List<String>> operations(String line, int index) {
+        final var operations = new LinkedHashMap<String, List<String>>();
+        var operands = new ArrayList<String>();
+        String opcode = null;
+        final var token = new StringBuilder();
+
+        for (; index <= line.length(); index++) {
+            final var symbol = index < line.length() ? line.charAt(index) : ';';
+            if (symbol == '"') {
+                final var closing = line.indexOf('"', index + 1);
+                if (closing < 0) {
+                    throw new IllegalArgumentException("Unterminated string in EPD " + line);
+                }
+                token.append(line, index + 1, closing);
+                index = closing;
+                continue;
+            }
+            if (symbol != ' ' && symbol != ';') {
+                token.append(symbol);
+                continue;
+            }
+
+            if (token.length() > 0) {
+                if (opcode == null) opcode = token.toString();
+                else operands.add(token.toString());
+                token.setLength(0);
+            }
+            if (symbol == ';' && opcode != null) {
+                operations.put(opcode, List.copyOf(operands));
+                opcode = null;
+                operands = new ArrayList<>();
+            }
+        }
+
+        return operations;
+    }
+}
@@ -0,0 +1,35 @@
+package org.bojarski.negamax;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+
+// the soft limit is checked between iterations, the hard limit aborts the iteration in progress
+@Value
+@Accessors(fluent = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Budget {
+    private static final Budget UNLIMITED = new Budget(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public static Budget of(Duration soft, Duration hard) {
+        if (soft.isNegative() || hard.compareTo(soft) < 0) {
+            throw new IllegalArgumentException("Soft limit " + soft + " must be between zero and hard limit " + hard);
+        }
+
+        return new Budget(soft.toNanos(), hard.toNanos());
+    }
+
+    public static Budget of(Duration hard) {
+        return of(hard.dividedBy(2), hard);
+    }
+
+    public static Budget unlimited() {
+        return UNLIMITED;
+    }
+
+    private final long soft;
+    private final long hard;
+}
@@ -6,6 +6,7 @@ import lombok.NonNull;
 import java.util.Collection;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 public interface Domain<S, A> {
     static <S, A> DomainAdapter.DomainAdapterBuilder<S, A> builder() {
@@ -15,11 +16,30 @@ public interface Domain<S, A> {
     Collection<A> actions(S state);
     S perform(S state, A action);
 
+    default S make(S state, A action) {
+        return perform(state, action);
+    }
+
+    default void unmake(S state, A action) {
+    }
+
+    default S copy(S state) {
+        return state;
+    }
+
+    default S pass(S state) {
+        throw new UnsupportedOperationException("Domain does not support passing the turn");
+    }
+
+    default void unpass(S state) {
+    }
+
     @Builder
     class DomainAdapter<S, A> implements Domain<S, A> {
         @NonNull
         private final Function<S, Collection<A>> actionsProducer;
         @NonNull private final BiFunction<S, A, S> actionPerformer;
+        private final UnaryOperator<S> statePasser;
 
         @Override
         public Collection<A> actions(S state) {
@@ -30,5 +50,14 @@ public interface Domain<S, A> {
         public S perform(S state, A action) {
             return actionPerformer.apply(state, action);
         }
+
+        @Override
+        public S pass(S state) {
+            if (statePasser == null) {
+                throw new UnsupportedOperationException("Domain needs a state passer for null move pruning");
+            }
+
+            return statePasser.apply(state);
+        }
     }
 }
@@ -0,0 +1,81 @@
+package org.bojarski.negamax;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+public interface MutableDomain<S, A> extends Domain<S, A> {
+    static <S, A> MutableDomainAdapter.MutableDomainAdapterBuilder<S, A> builder() {
+        return MutableDomainAdapter.builder();
+    }
+
+    @Override
+    S make(S state, A action);
+
+    @Override
+    void unmake(S state, A action);
+
+    @Override
+    S copy(S state);
+
+    @Override
+    default S perform(S state, A action) {
+        return make(state, action);
+    }
+
+    @Builder
+    class MutableDomainAdapter<S, A> implements MutableDomain<S, A> {
+        @NonNull
+        private final Function<S, Collection<A>> actionsProducer;
+        @NonNull private final BiConsumer<S, A> actionMaker;
+        @NonNull private final BiConsumer<S, A> actionUnmaker;
+        private final UnaryOperator<S> stateCopier;
+        private final Consumer<S> statePasser;
+        private final Consumer<S> stateUnpasser;
+
+        @Override
+        public Collection<A> actions(S state) {
+            return actionsProducer.apply(state);
+        }
+
+        @Override
+        public S make(S state, A action) {
+            actionMaker.accept(state, action);
+            return state;
+        }
+
+        @Override
+        public void unmake(S state, A action) {
+            actionUnmaker.accept(state, action);
+        }
+
+        @Override
+        public S copy(S state) {
+            if (stateCopier == null) {
+                throw new UnsupportedOperationException("Mutable domain needs a state copier to be searched in parallel");
+            }
+
+            return stateCopier.apply(state);
+        }
+
+        @Override
+        public S pass(S state) {
+            if (statePasser == null || stateUnpasser == null) {
+                throw new UnsupportedOperationException("Mutable domain needs a state passer and unpasser for null move pruning");
+            }
+
+            statePasser.accept(state);
+            return state;
+        }
+
+        @Override
+        public void unpass(S state) {
+            stateUnpasser.accept(state);
+        }
+    }
+}
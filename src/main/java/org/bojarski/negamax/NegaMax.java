@@ -1,40 +1,108 @@
 package org.bojarski.negamax;
 
+import lombok.Builder;
 import lombok.NonNull;
 import lombok.Value;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
-@Value(staticConstructor = "of")
+import static org.bojarski.negamax.TranspositionTable.Bound.*;
+
+@Value
+@Builder(toBuilder = true)
 public class NegaMax<S, A> {
+    private static final long CLOCK_INTERVAL = 1024 - 1;
+    private static final int PREFERRED = Integer.MAX_VALUE;
+    private static final int TACTICAL = 1 << 30;
+    private static final int KILLER = 1 << 29;
+    private static final int HISTORY_LIMIT = 1 << 28;
+
+    public static <S, A> NegaMax<S, A> of(ToDoubleFunction<S> heuristic, Domain<S, A> domain) {
+        return NegaMax.<S, A>builder().heuristic(heuristic).domain(domain).build();
+    }
+
     @NonNull private final ToDoubleFunction<S> heuristic;
     @NonNull private final Domain<S, A> domain;
+    private final ToLongFunction<S> key;
+    private final TranspositionTable<A> table;
+    private final double aspiration;
+    private final int threads;
+    // helpers run on the owner's executor, the common pool is used when none is given
+    private final ExecutorService executor;
+    private final Ordering<S, A> ordering;
+    private final boolean quiescence;
+    private final double delta;
+    private final boolean principal;
+    private final int nullMove;
+    private final Predicate<S> zugzwang;
+    private final int lateMoves;
 
     public Search<S, A> search(final S start, final Predicate<S> predicate) {
-        return new NegaMaxSearch(start, predicate, 2);
+        return new NegaMaxSearch(start, predicate, 2, Budget.unlimited());
     }
 
     public Search<S, A> search(final S start, final Predicate<S> predicate, int depth) {
-        return new NegaMaxSearch(start, predicate, depth);
+        return new NegaMaxSearch(start, predicate, depth, Budget.unlimited());
+    }
+
+    public Search<S, A> search(final S start, final Predicate<S> predicate, int depth, Budget budget) {
+        return new NegaMaxSearch(start, predicate, depth, budget);
+    }
+
+    private static class Aborted extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private static final Aborted INSTANCE = new Aborted();
+
+        private Aborted() {
+            super("Search aborted", null, false, false);
+        }
     }
 
     private class NegaMaxSearch implements Search<S, A> {
         private final Predicate<S> predicate;
+        private final Budget budget;
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder cutoffs = new LongAdder();
+        private final LongAdder firstCutoffs = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAccumulator selective = new LongAccumulator(Math::max, 0);
+        private final List<Statistics.Iteration> iterations = new CopyOnWriteArrayList<>();
 
-        private boolean completed;
+        private volatile boolean stopped;
+        private volatile boolean finished;
+        private volatile long started;
+        private volatile long ended;
         private int depth;
-        private A optimal;
         private S start;
 
-        public NegaMaxSearch(S start, Predicate<S> predicate, int depth) {
-            this.completed = predicate.test(start);
+        public NegaMaxSearch(S start, Predicate<S> predicate, int depth, Budget budget) {
+            if ((key == null) != (table == null)) {
+                throw new IllegalStateException("Transposition table requires both key and table");
+            }
+            if (quiescence && ordering == null) {
+                throw new IllegalStateException("Quiescence requires an ordering to tell tactical actions apart");
+            }
+
             this.predicate = predicate;
             this.depth = depth;
             this.start = start;
+            this.budget = budget;
         }
 
         @Override
@@ -42,62 +110,424 @@ public class NegaMax<S, A> {
             return new PrincipalVariationIterator();
         }
 
-        private double negamax(S state, int depth, double alpha, double beta) {
-            final var goal = goal(state);
-            if (goal) completed = true;
-            if (depth == 0 || goal) {
-                return heuristic.applyAsDouble(state);
-            }
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+
+        // worker counters are folded in when each worker finishes, iterations are recorded as they complete
+        @Override
+        public Statistics statistics() {
+            final var completed = List.copyOf(iterations);
+
+            return Statistics.builder()
+                    .nodes(nodes.sum())
+                    .evaluations(evaluations.sum())
+                    .cutoffs(cutoffs.sum())
+                    .firstCutoffs(firstCutoffs.sum())
+                    .hits(hits.sum())
+                    .depth(completed.isEmpty() ? 0 : completed.get(completed.size() - 1).depth())
+                    .selective((int) selective.get())
+                    .nanos(started == 0 ? 0 : (ended != 0 ? ended : System.nanoTime()) - started)
+                    .iterations(completed)
+                    .build();
+        }
+
+        private boolean goal(S state) {
+            return predicate.test(state);
+        }
+
+        private long elapsed() {
+            return System.nanoTime() - started;
+        }
+
+        // lazy smp: helpers search copies of the root at staggered depths and only share the transposition table
+        private List<Future<?>> helpers() {
+            if (threads <= 1) return List.of();
 
-            for (A action : actions(state)) {
-                final var child = domain.perform(state, action);
-                final var score = -negamax(child, depth - 1, -beta, -alpha);
-                if (score >= beta) return beta;
-                if (score > alpha) alpha = score;
+            final var pool = executor != null ? executor : ForkJoinPool.commonPool();
+            final var helpers = new ArrayList<Future<?>>(threads - 1);
+            for (int helper = 1; helper < threads; helper++) {
+                final var worker = new Worker(domain.copy(start), false);
+                final var first = 1 + helper % 2;
+                helpers.add(pool.submit(() -> worker.deepen(first)));
             }
 
-            return alpha;
+            return helpers;
         }
 
-        private Collection<A> actions(S state) {
-            return domain.actions(state);
+        // helpers notice the finished flag within one clock interval, each of them is joined before the search returns
+        private void await(List<Future<?>> helpers) {
+            for (int index = 0; index < helpers.size(); index++) {
+                try {
+                    helpers.get(index).get();
+                } catch (InterruptedException e) {
+                    for (int rest = index; rest < helpers.size(); rest++) helpers.get(rest).cancel(true);
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Helper search failed", e.getCause());
+                }
+            }
         }
 
-        private boolean goal(S state) {
-            return predicate.test(state);
+        private class Worker {
+            private final TranspositionTable.Entry<A> entry = new TranspositionTable.Entry<>();
+            private final S root;
+            private final boolean main;
+            private final Object[] killers;
+            private final Object[][] variations;
+            private final int[] lengths;
+            private final int[] history;
+            private Object[][] candidates;
+            private int[][] ranks;
+
+            private long nodes;
+            private long evaluations;
+            private long cutoffs;
+            private long firstCutoffs;
+            private long hits;
+            private int selective;
+            private A optimal;
+
+            private Worker(S root, boolean main) {
+                this.root = root;
+                this.main = main;
+                this.killers = new Object[2 * (depth + 1)];
+                this.variations = new Object[depth + 1][depth + 1];
+                this.lengths = new int[depth + 1];
+                this.history = ordering == null ? null : new int[ordering.slots()];
+                this.candidates = new Object[depth + 1][];
+                this.ranks = new int[depth + 1][];
+            }
+
+            private List<A> deepen(int first) {
+                List<A> chosen = null;
+                var score = 0.0;
+                try {
+                    for (int iteration = first; iteration <= depth && !stopped && (main || !finished); iteration++) {
+                        final var counted = nodes;
+                        final var begun = System.nanoTime();
+                        score = iterate(iteration, score);
+                        chosen = variation();
+                        if (main) iterations.add(new Statistics.Iteration(iteration, nodes - counted, System.nanoTime() - begun, score));
+                        if (elapsed() >= budget.soft()) break;
+                    }
+                } catch (Aborted aborted) {
+                    if (chosen == null && optimal != null) chosen = List.of(optimal);
+                } finally {
+                    NegaMaxSearch.this.nodes.add(nodes);
+                    NegaMaxSearch.this.evaluations.add(evaluations);
+                    NegaMaxSearch.this.cutoffs.add(cutoffs);
+                    NegaMaxSearch.this.firstCutoffs.add(firstCutoffs);
+                    NegaMaxSearch.this.hits.add(hits);
+                    NegaMaxSearch.this.selective.accumulate(selective);
+                }
+
+                return chosen != null ? chosen : List.of(domain.actions(root).iterator().next());
+            }
+
+            // the root row of the triangular table holds the line that produced the exact root score
+            @SuppressWarnings("unchecked")
+            private List<A> variation() {
+                if (lengths[0] == 0 || !variations[0][0].equals(optimal)) return List.of(optimal);
+
+                final var variation = new ArrayList<A>(lengths[0]);
+                for (int ply = 0; ply < lengths[0]; ply++) variation.add((A) variations[0][ply]);
+
+                return variation;
+            }
+
+            private double iterate(int depth, double guess) {
+                var alpha = depth > 1 && aspiration > 0 ? guess - aspiration : Double.NEGATIVE_INFINITY;
+                var beta = depth > 1 && aspiration > 0 ? guess + aspiration : Double.POSITIVE_INFINITY;
+
+                while (true) {
+                    final var score = negamax(root, depth, 0, alpha, beta, false);
+                    if (score <= alpha && alpha != Double.NEGATIVE_INFINITY) {
+                        alpha = Double.NEGATIVE_INFINITY;
+                    } else if (score >= beta && beta != Double.POSITIVE_INFINITY) {
+                        beta = Double.POSITIVE_INFINITY;
+                    } else {
+                        return score;
+                    }
+                }
+            }
+
+            private double negamax(S state, int depth, int ply, double alpha, double beta, boolean nullable) {
+                tick(ply);
+                lengths[ply] = ply;
+
+                final var goal = goal(state);
+                if (depth == 0 && !goal && quiescence) {
+                    return quiesce(state, ply, alpha, beta);
+                }
+                if (depth == 0 || goal) {
+                    evaluations++;
+                    return heuristic.applyAsDouble(state);
+                }
+
+                final var hash = table == null ? 0L : key.applyAsLong(state);
+                final var hit = table != null && table.probe(hash, entry);
+                // the probe buffer is shared by every ply, the null move search below overwrites it
+                final var hashed = hit ? entry.action() : null;
+                if (hit) hits++;
+                if (hit && ply > 0 && entry.depth() >= depth) {
+                    final var score = entry.score();
+                    switch (entry.bound()) {
+                        case EXACT:
+                            return Math.max(alpha, Math.min(beta, score));
+                        case LOWER:
+                            if (score >= beta) return beta;
+                            break;
+                        case UPPER:
+                            if (score <= alpha) return alpha;
+                            break;
+                    }
+                }
+
+                if (nullable && nullMove > 0 && depth > nullMove && beta != Double.POSITIVE_INFINITY
+                        && (zugzwang == null || !zugzwang.test(state))) {
+                    final var child = domain.pass(state);
+                    final double score;
+                    try {
+                        score = -negamax(child, depth - 1 - nullMove, ply + 1, -beta, -Math.nextDown(beta), false);
+                    } finally {
+                        domain.unpass(child);
+                    }
+                    if (score >= beta) return beta;
+                }
+
+                final var origin = alpha;
+                A best = null;
+
+                final var preferred = ply == 0 && optimal != null ? optimal : hashed;
+                var searched = 0;
+                final var count = actions(state, preferred, ply);
+                for (int index = 0; index < count; index++) {
+                    final var action = select(ply, index, count);
+                    final var child = domain.make(state, action);
+                    final double score;
+                    try {
+                        score = late(action, depth, searched)
+                                ? reduced(child, depth - 1, ply + 1, alpha, beta)
+                                : principal && searched > 0
+                                ? scout(child, depth - 1, ply + 1, alpha, beta)
+                                : -negamax(child, depth - 1, ply + 1, -beta, -alpha, true);
+                    } finally {
+                        domain.unmake(child, action);
+                    }
+                    if (score >= beta) {
+                        cutoffs++;
+                        if (searched == 0) firstCutoffs++;
+                        reward(action, depth, ply);
+                        if (table != null) table.store(hash, depth, LOWER, beta, action);
+                        if (ply == 0) optimal = action;
+                        return beta;
+                    }
+                    if (score > alpha) {
+                        alpha = score;
+                        best = action;
+                        if (ply == 0) optimal = action;
+                        variations[ply][ply] = action;
+                        System.arraycopy(variations[ply + 1], ply + 1, variations[ply], ply + 1, lengths[ply + 1] - ply - 1);
+                        lengths[ply] = lengths[ply + 1];
+                    }
+                    searched++;
+                }
+
+                if (table != null) table.store(hash, depth, alpha > origin ? EXACT : UPPER, alpha, best);
+
+                return alpha;
+            }
+
+            // later siblings only have to prove they cannot beat the first one, a full window is needed when they do
+            private double scout(S child, int depth, int ply, double alpha, double beta) {
+                final var score = -negamax(child, depth, ply, -Math.nextUp(alpha), -alpha, true);
+                if (score > alpha && score < beta) {
+                    return -negamax(child, depth, ply, -beta, -alpha, true);
+                }
+
+                return score;
+            }
+
+            private boolean late(A action, int depth, int searched) {
+                return lateMoves > 0 && searched >= lateMoves && depth >= 3 && ordering != null && ordering.quiet(action);
+            }
+
+            // quiet actions late in the ordering are searched one ply shallower and verified at full depth when they beat alpha
+            private double reduced(S child, int depth, int ply, double alpha, double beta) {
+                final var score = -negamax(child, depth - 1, ply, -Math.nextUp(alpha), -alpha, true);
+                if (score > alpha) {
+                    return principal ? scout(child, depth, ply, alpha, beta) : -negamax(child, depth, ply, -beta, -alpha, true);
+                }
+
+                return score;
+            }
+
+            // only tactical actions are searched past the horizon, the side to move may stand pat on the heuristic
+            private double quiesce(S state, int ply, double alpha, double beta) {
+                evaluations++;
+                final var stand = heuristic.applyAsDouble(state);
+                if (goal(state)) return stand;
+                if (stand >= beta) return beta;
+                if (stand > alpha) alpha = stand;
+
+                final var count = tactical(state, ply);
+                for (int index = 0; index < count; index++) {
+                    final var action = select(ply, index, count);
+                    if (stand + ordering.gain(state, action) + delta <= alpha) continue;
+
+                    tick(ply + 1);
+                    final var child = domain.make(state, action);
+                    final double score;
+                    try {
+                        score = -quiesce(child, ply + 1, -beta, -alpha);
+                    } finally {
+                        domain.unmake(child, action);
+                    }
+                    if (score >= beta) return beta;
+                    if (score > alpha) alpha = score;
+                }
+
+                return alpha;
+            }
+
+            private void tick(int ply) {
+                if (ply > selective) selective = ply;
+                if ((++nodes & CLOCK_INTERVAL) == 0 && (stopped || finished || elapsed() >= budget.hard())) {
+                    throw Aborted.INSTANCE;
+                }
+            }
+
+            // actions of a node wait in the scratch arrays of its ply, the best one is only picked when it is searched
+            private int tactical(S state, int ply) {
+                final var actions = domain.actions(state);
+                final var buffer = buffer(ply, actions.size());
+                final var ranked = ranks[ply];
+                var count = 0;
+                for (A action : actions) {
+                    if (ordering.quiet(action)) continue;
+
+                    buffer[count] = action;
+                    ranked[count++] = ordering.score(state, action);
+                }
+
+                return count;
+            }
+
+            private int actions(S state, A preferred, int ply) {
+                final var actions = domain.actions(state);
+                final var buffer = buffer(ply, actions.size());
+                final var ranked = ranks[ply];
+                var count = 0;
+                for (A action : actions) {
+                    buffer[count] = action;
+                    ranked[count++] = rank(state, action, preferred, ply);
+                }
+
+                return count;
+            }
+
+            // a cutoff usually comes early, so selecting the first highest rank beats sorting the whole node
+            @SuppressWarnings("unchecked")
+            private A select(int ply, int index, int count) {
+                final var buffer = candidates[ply];
+                final var ranked = ranks[ply];
+                var best = index;
+                for (int candidate = index + 1; candidate < count; candidate++) {
+                    if (ranked[candidate] > ranked[best]) best = candidate;
+                }
+
+                final var action = buffer[best];
+                final var rank = ranked[best];
+                System.arraycopy(buffer, index, buffer, index + 1, best - index);
+                System.arraycopy(ranked, index, ranked, index + 1, best - index);
+                buffer[index] = action;
+                ranked[index] = rank;
+
+                return (A) action;
+            }
+
+            // quiescence goes past the nominal depth, so the rows grow with the deepest ply seen
+            private Object[] buffer(int ply, int size) {
+                if (ply >= candidates.length) {
+                    candidates = Arrays.copyOf(candidates, 2 * ply);
+                    ranks = Arrays.copyOf(ranks, 2 * ply);
+                }
+                if (candidates[ply] == null || candidates[ply].length < size) {
+                    candidates[ply] = new Object[size];
+                    ranks[ply] = new int[size];
+                }
+
+                return candidates[ply];
+            }
+
+            private int rank(S state, A action, A preferred, int ply) {
+                if (ordering == null) return action.equals(preferred) ? PREFERRED : 0;
+                if (action.equals(preferred)) return PREFERRED;
+                if (!ordering.quiet(action)) return TACTICAL + ordering.score(state, action);
+                if (action.equals(killers[2 * ply])) return KILLER;
+                if (action.equals(killers[2 * ply + 1])) return KILLER - 1;
+
+                return history[ordering.slot(action)];
+            }
+
+            private void reward(A action, int depth, int ply) {
+                if (ordering == null || !ordering.quiet(action)) return;
+
+                if (!action.equals(killers[2 * ply])) {
+                    killers[2 * ply + 1] = killers[2 * ply];
+                    killers[2 * ply] = action;
+                }
+
+                final var slot = ordering.slot(action);
+                history[slot] += depth * depth;
+                if (history[slot] > HISTORY_LIMIT) {
+                    for (int index = 0; index < history.length; index++) history[index] /= 2;
+                }
+            }
         }
 
+        // the whole search runs on the first call, the rest of the variation is then read back without searching
         private class PrincipalVariationIterator implements Iterator<A> {
+            private final boolean searchable;
+
+            private List<A> variation;
+            private int index;
 
             private PrincipalVariationIterator() {
-                if (depth == 0 || goal(start)) completed = true;
+                this.searchable = depth > 0 && !goal(start);
             }
 
             @Override
             public boolean hasNext() {
-                return !completed;
+                return variation == null ? searchable : index < variation.size();
             }
 
             @Override
             public A next() {
                 if (!hasNext()) throw new NoSuchElementException();
+                if (variation == null) variation = search();
 
-                var alpha = Double.NEGATIVE_INFINITY;
-                var beta = Double.POSITIVE_INFINITY;
+                return variation.get(index++);
+            }
 
-                for (A action : actions(start)) {
-                    final var child = domain.perform(start, action);
-                    final var score = -negamax(child, depth - 1, -beta, -alpha);
-                    if (score >= beta) {
-                        break;
-                    }
-                    if (score > alpha) {
-                        optimal = action;
-                        alpha = score;
-                    }
-                }
+            private List<A> search() {
+                if (table != null) table.age();
+                started = System.nanoTime();
+                ended = 0;
+                finished = false;
+                iterations.clear();
 
-                return optimal;
+                final var helpers = helpers();
+                try {
+                    return new Worker(start, true).deepen(1);
+                } finally {
+                    finished = true;
+                    await(helpers);
+                    ended = System.nanoTime();
+                }
             }
         }
     }
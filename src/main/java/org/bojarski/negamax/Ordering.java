@@ -0,0 +1,16 @@
+package org.bojarski.negamax;
+
+// tactical actions are searched by descending score, quiet ones after the killers by their history slot;
+// gain is the most a tactical action can raise the heuristic and bounds delta pruning in quiescence
+public interface Ordering<S, A> {
+
+    boolean quiet(A action);
+
+    int score(S state, A action);
+
+    double gain(S state, A action);
+
+    int slot(A action);
+
+    int slots();
+}
@@ -2,4 +2,7 @@ package org.bojarski.negamax;
 
 public interface Search<S, A> extends Iterable<A> {
 
+    void stop();
+
+    Statistics statistics();
 }
@@ -0,0 +1,76 @@
+package org.bojarski.negamax;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// counters are summed over all workers, iterations are timed on the main worker only
+@Value
+@Accessors(fluent = true)
+@Builder(access = AccessLevel.PACKAGE)
+public class Statistics {
+
+    @Value
+    @Accessors(fluent = true)
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static class Iteration {
+        private final int depth;
+        private final long nodes;
+        private final long nanos;
+        private final double score;
+    }
+
+    private final long nodes;
+    private final long evaluations;
+    private final long cutoffs;
+    private final long firstCutoffs;
+    private final long hits;
+    private final int depth;
+    private final int selective;
+    private final long nanos;
+    private final List<Iteration> iterations;
+
+    public long nps() {
+        return nanos == 0 ? 0 : nodes * 1000000000L / nanos;
+    }
+
+    public double firstCutoffRate() {
+        return cutoffs == 0 ? 0.0 : (double) firstCutoffs / cutoffs;
+    }
+
+    // growth of the tree from the second to last to the last completed iteration
+    public double branching() {
+        final var count = iterations.size();
+        if (count < 2 || iterations.get(count - 2).nodes() == 0) return 0.0;
+
+        return (double) iterations.get(count - 1).nodes() / iterations.get(count - 2).nodes();
+    }
+
+    public String json() {
+        return "{\"nodes\":" + nodes
+                + ",\"evaluations\":" + evaluations
+                + ",\"cutoffs\":" + cutoffs
+                + ",\"firstCutoffs\":" + firstCutoffs
+                + ",\"hits\":" + hits
+                + ",\"depth\":" + depth
+                + ",\"selective\":" + selective
+                + ",\"nanos\":" + nanos
+                + ",\"nps\":" + nps()
+                + ",\"branching\":" + branching()
+                + ",\"iterations\":" + iterations.stream()
+                .map(iteration -> "{\"depth\":" + iteration.depth() + ",\"nodes\":" + iteration.nodes() + ",\"nanos\":" + iteration.nanos() + ",\"score\":" + iteration.score() + "}")
+                .collect(Collectors.joining(",", "[", "]"))
+                + "}";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d/%d, %d nodes in %dms (%d nodes/s), %d evaluations, %d table hits, %d cutoffs (%.1f%% first), branching %.2f",
+                depth, selective, nodes, nanos / 1000000, nps(), evaluations, hits, cutoffs, 100 * firstCutoffRate(), branching());
+    }
+}
@@ -0,0 +1,112 @@
+package org.bojarski.negamax;
+
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+import java.util.Arrays;
+
+// every bucket holds a depth-preferred slot followed by an always-replace slot; the stored key is xored with
+// the data words so a torn write from another thread reads back as a miss instead of a wrong entry
+public class TranspositionTable<A> {
+    public enum Bound {
+        EXACT, LOWER, UPPER
+    }
+
+    @Getter
+    @Accessors(fluent = true)
+    public static class Entry<A> {
+        private int depth;
+        private Bound bound;
+        private double score;
+        private A action;
+    }
+
+    private static final Bound[] BOUNDS = Bound.values();
+    private static final int SLOT_BYTES = 3 * Long.BYTES + Integer.BYTES;
+    private static final long OCCUPIED = 1L << 32;
+
+    public static <A> TranspositionTable<A> of(int megabytes) {
+        return new TranspositionTable<>(megabytes);
+    }
+
+    private final long[] keys;
+    private final long[] data;
+    private final long[] scores;
+    private final Object[] actions;
+    private final int mask;
+
+    private int generation;
+
+    private TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1MB, got " + megabytes);
+        }
+
+        final var buckets = (int) Long.highestOneBit((long) megabytes * 1024 * 1024 / (2 * SLOT_BYTES));
+        this.mask = buckets - 1;
+        this.keys = new long[2 * buckets];
+        this.data = new long[2 * buckets];
+        this.scores = new long[2 * buckets];
+        this.actions = new Object[2 * buckets];
+    }
+
+    public void age() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        Arrays.fill(scores, 0L);
+        Arrays.fill(actions, null);
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean probe(long key, Entry<A> entry) {
+        final var slot = slot(key);
+
+        for (int index = slot; index < slot + 2; index++) {
+            final var meta = data[index];
+            final var score = scores[index];
+            final var action = actions[index];
+            if (meta != 0 && (keys[index] ^ meta ^ score) == key) {
+                entry.depth = (int) (meta & 0xFFFF);
+                entry.bound = BOUNDS[(int) (meta >>> 16) & 0x3];
+                entry.score = Double.longBitsToDouble(score);
+                entry.action = (A) action;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public void store(long key, int depth, Bound bound, double score, A action) {
+        final var slot = slot(key);
+        final var meta = OCCUPIED
+                | (long) generation << 18
+                | (long) bound.ordinal() << 16
+                | depth & 0xFFFF;
+        final var bits = Double.doubleToRawLongBits(score);
+
+        final var preferred = data[slot];
+        final var replace = preferred == 0
+                || (keys[slot] ^ preferred ^ scores[slot]) == key
+                || ((int) (preferred >>> 18) & 0xFF) != generation
+                || depth >= (int) (preferred & 0xFFFF);
+        final var index = replace ? slot : slot + 1;
+
+        keys[index] = key ^ meta ^ bits;
+        data[index] = meta;
+        scores[index] = bits;
+        actions[index] = action;
+    }
+
+    private int slot(long key) {
+        return ((int) key & mask) << 1;
+    }
+}
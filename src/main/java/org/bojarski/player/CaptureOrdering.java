@@ -0,0 +1,58 @@
+package org.bojarski.player;
+
+import org.bojarski.chess.board.map.Field;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.PieceKind;
+import org.bojarski.chess.board.map.PieceSquare;
+import org.bojarski.negamax.Ordering;
+
+import static org.bojarski.chess.board.map.MoveType.MOVE;
+
+// most valuable victim first, least valuable attacker breaking the ties; values come from the evaluation's material,
+// boards only have to tell which kind of piece stands on the field a move starts from
+abstract class CaptureOrdering<S> implements Ordering<S, Move> {
+    private static final int[] VALUES = new int[PieceKind.values().length];
+    private static final double[] MATERIAL = new double[PieceKind.values().length];
+
+    static {
+        for (PieceKind kind : PieceKind.values()) {
+            MATERIAL[kind.ordinal()] = PieceSquare.material(kind);
+            VALUES[kind.ordinal()] = (int) Math.round(PieceSquare.material(kind) / PieceSquare.material(PieceKind.PAWN));
+        }
+    }
+
+    abstract PieceKind mover(S board, Field from);
+
+    @Override
+    public boolean quiet(Move move) {
+        return move.type() == MOVE;
+    }
+
+    @Override
+    public int score(S board, Move move) {
+        final var victim = move.captured() == null ? 0 : VALUES[move.captured().type().ordinal()];
+        final var promotion = move.promoted() == null ? 0 : VALUES[move.promoted().ordinal()];
+        final var mover = mover(board, move.from());
+        final var attacker = mover == null ? 0 : VALUES[mover.ordinal()];
+
+        return 16 * (victim + promotion) - attacker;
+    }
+
+    @Override
+    public double gain(S board, Move move) {
+        final var victim = move.captured() == null ? 0.0 : MATERIAL[move.captured().type().ordinal()];
+        final var promotion = move.promoted() == null ? 0.0 : MATERIAL[move.promoted().ordinal()] - MATERIAL[PieceKind.PAWN.ordinal()];
+
+        return victim + promotion;
+    }
+
+    @Override
+    public int slot(Move move) {
+        return move.from().ordinal() * 64 + move.to().ordinal();
+    }
+
+    @Override
+    public int slots() {
+        return 64 * 64;
+    }
+}
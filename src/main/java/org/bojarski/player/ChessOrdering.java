@@ -0,0 +1,14 @@
+package org.bojarski.player;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Field;
+import org.bojarski.chess.board.map.Piece;
+import org.bojarski.chess.board.map.PieceKind;
+
+public class ChessOrdering extends CaptureOrdering<Board> {
+
+    @Override
+    PieceKind mover(Board board, Field from) {
+        return board.piece(from).map(Piece::type).orElse(null);
+    }
+}
@@ -1,141 +1,174 @@
 package org.bojarski.player;
 
+import org.bojarski.chess.board.bitboard.SearchBoard;
 import org.bojarski.chess.board.map.Board;
-import org.bojarski.chess.board.map.Field;
 import org.bojarski.chess.board.map.Move;
 import org.bojarski.chess.board.map.Piece;
-import org.bojarski.negamax.Domain;
+import org.bojarski.chess.board.map.PieceSquare;
+import org.bojarski.chess.board.map.Side;
+import org.bojarski.negamax.Budget;
+import org.bojarski.negamax.MutableDomain;
 import org.bojarski.negamax.NegaMax;
 import org.bojarski.negamax.Search;
+import org.bojarski.negamax.Statistics;
+import org.bojarski.negamax.TranspositionTable;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
-import java.util.function.ToDoubleFunction;
 
-import static org.bojarski.chess.board.map.Side.WHITE;
-
-public class ChessPlayer {
-    private static final Domain<Board, Move> CHESS = Domain.<Board, Move>builder()
-            .actionPerformer((b, m) -> b.perform(m))
-            .actionsProducer(b -> b.moves())
+import static org.bojarski.chess.board.map.PieceKind.KING;
+import static org.bojarski.chess.board.map.PieceKind.PAWN;
+
+public class ChessPlayer implements AutoCloseable {
+    // positions are searched on one mutable board per worker, moves are made and unmade instead of copying a board per node
+    private static final MutableDomain<SearchBoard, Move> CHESS = MutableDomain.<SearchBoard, Move>builder()
+            .actionMaker(SearchBoard::make)
+            .actionUnmaker(SearchBoard::unmake)
+            .actionsProducer(SearchBoard::moves)
+            .stateCopier(SearchBoard::copy)
+            .statePasser(SearchBoard::pass)
+            .stateUnpasser(SearchBoard::pass)
             .build();
-    private static final ToDoubleFunction<Board> HEURISTIC = b -> evaluate(b);
-    private static final NegaMax<Board, Move> ALGORITHM = NegaMax.of(HEURISTIC, CHESS);
-    private static final Predicate<Board> GOAL = b -> b.gameover();
-    private Search<Board, Move> search;
-
-    public Iterator<Move> findMove(Board board, int depth) {
-        search = ALGORITHM.search(board, GOAL, depth);
-        final var iterator = search.iterator();
+    private static final Predicate<SearchBoard> GOAL = SearchBoard::gameover;
+    private static final int TABLE_SIZE = 16;
+    private static final int PAWN_CACHE_SIZE = 256;
+    private static final int EVALUATION_CACHE_SIZE = 4096;
+    private static final double ASPIRATION = 5.0;
+    private static final int THREADS = 1;
+    private static final double DELTA = 20.0;
+    private static final int NULL_MOVE = 2;
+    private static final int LATE_MOVES = 4;
+    // piece-square values count a pawn as ten
+    private static final double CENTIPAWNS = 10.0;
+
+    private final NegaMax<SearchBoard, Move> algorithm;
+    private final TranspositionTable<Move> table;
+    private final PawnCache pawns;
+    private final EvaluationCache<SearchBoard> evaluations;
+    // helper threads are kept for the lifetime of the player instead of being started for every search
+    private final ForkJoinPool helpers;
+    private volatile Search<SearchBoard, Move> search;
+
+    public ChessPlayer() {
+        this(TABLE_SIZE);
+    }
 
-        return iterator;
+    public ChessPlayer(int megabytes) {
+        this(megabytes, THREADS);
     }
 
-    public Iterator<Move> findMove(Board board) {
-        return findMove(board, 2);
+    public ChessPlayer(int megabytes, int threads) {
+        this(megabytes, threads, EVALUATION_CACHE_SIZE);
     }
 
-    public static Double evaluate(Board board) {
-        var result = 0.0;
-        for (Piece piece : board.pieces()) {
-            switch (piece.type()) {
-                case PAWN:
-                    result += piece.side().rankAdvanceDirection() * (10 + scorepawn(piece));
-                    break;
-                case KNIGHT:
-                    result += piece.side().rankAdvanceDirection() * (30 + scorehorse(piece));
-                    break;
-                case BISHOP:
-                    result += piece.side().rankAdvanceDirection() * (30 + scorebishop(piece));
-                    break;
-                case ROOK:
-                    result += piece.side().rankAdvanceDirection() * 40.0;
-                    break;
-                case QUEEN:
-                    result += piece.side().rankAdvanceDirection() * 90.0;
-                    break;
-                case KING:
-                    result += piece.side().rankAdvanceDirection() * 1500.0;
-                    break;
-            }
+    public ChessPlayer(int megabytes, int threads, int evaluationKilobytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Player needs at least 1 thread, got " + threads);
         }
 
-        return board.side().rankAdvanceDirection() * result;
+        this.helpers = threads > 1 ? new ForkJoinPool(threads - 1) : null;
+        this.table = TranspositionTable.of(megabytes);
+        this.pawns = PawnCache.of(PAWN_CACHE_SIZE);
+        this.evaluations = EvaluationCache.of(evaluationKilobytes, SearchBoard::key, this::heuristic);
+        this.algorithm = NegaMax.<SearchBoard, Move>builder()
+                .heuristic(evaluations)
+                .domain(CHESS)
+                .key(SearchBoard::key)
+                .table(table)
+                .aspiration(ASPIRATION)
+                .threads(threads)
+                .executor(helpers)
+                .ordering(new SearchOrdering())
+                .quiescence(true)
+                .delta(DELTA)
+                .principal(true)
+                .nullMove(NULL_MOVE)
+                .zugzwang(SearchBoard::zugzwang)
+                .lateMoves(LATE_MOVES)
+                .build();
+    }
+
+    public Iterator<Move> findMove(Board board, int depth) {
+        return findMove(board, depth, Budget.unlimited());
     }
 
-    private static double scorebishop(Piece piece) {
-        final var side = piece.side();
-        final var position = piece.position();
+    public Iterator<Move> findMove(Board board, int depth, Budget budget) {
+        search = algorithm.search(SearchBoard.of(board), GOAL, depth, budget);
+        final var iterator = search.iterator();
+
+        return iterator;
+    }
 
-        return side == WHITE ? score(whitebishopscores, position) : score(blackbishopscores, position);
+    public PawnCache pawns() {
+        return pawns;
     }
 
-    private static double scorepawn(Piece piece) {
-        final var side = piece.side();
-        final var position = piece.position();
+    public EvaluationCache<SearchBoard> evaluations() {
+        return evaluations;
+    }
 
-        return side == WHITE ? score(whitepawnsscores, position) : score(blackpawnsscores, position);
+    public double heuristic(SearchBoard board) {
+        return board.side().rankAdvanceDirection() * (board.score() + pawns.score(board));
     }
 
-    private static double scorehorse(Piece piece) {
-        final var position = piece.position();
-        final var side = piece.side();
+    public Statistics statistics() {
+        final var current = search;
+        if (current == null) {
+            throw new IllegalStateException("No search has been started");
+        }
 
-        return side == WHITE ? score(whitehorsescores, position) : score(blackhorsescores, position);
+        return current.statistics();
     }
 
-    private static Double score(Double[][] scores, Field position) {
-        return scores[position.getRank()][position.getFile()];
+    public void stop() {
+        final var current = search;
+        if (current != null) current.stop();
     }
 
-    private static final Double[][] whitebishopscores = {
-            {-2.0, -1.0, -1.0, -1.0, -1.0, -1.0, -1.0, -2.0},
-            {-1.0,  0.5,  0.0,  0.0,  0.0,  0.0,  0.5, -1.0},
-            {-1.0,  1.0,  1.0,  1.0,  1.0,  1.0,  1.0, -1.0},
-            {-1.0,  0.0,  1.0,  1.0,  1.0,  1.0,  0.0, -1.0},
-            {-1.0,  0.5,  0.5,  1.0,  1.0,  0.5,  0.5, -1.0},
-            {-1.0,  0.0,  0.5,  1.0,  1.0,  0.5,  0.0, -1.0},
-            {-1.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, -1.0},
-            {-2.0, -1.0, -1.0, -1.0, -1.0, -1.0, -1.0, -2.0},
-    };
+    // forgets everything learned by earlier searches, the next one starts as cold as on a new player
+    public void clear() {
+        table.clear();
+        pawns.clear();
+        evaluations.clear();
+    }
 
-    private static final Double[][] blackbishopscores = rotate(whitebishopscores);
+    @Override
+    public void close() {
+        stop();
+        if (helpers != null) helpers.shutdown();
+    }
 
-    private static final Double[][] whitehorsescores = {
-            {-5.0, -4.0, -3.0, -3.0, -3.0, -3.0, -4.0, -5.0},
-            {-4.0, -2.0,  0.0,  0.5,  0.5,  0.0, -2.0, -4.0},
-            {-3.0,  0.5,  1.0,  1.5,  1.5,  1.0,  0.5, -3.0},
-            {-3.0,  0.0,  1.5,  2.0,  2.0,  1.5,  0.0, -3.0},
-            {-3.0,  0.5,  1.5,  2.0,  2.0,  1.5,  0.5, -3.0},
-            {-3.0,  0.0,  1.0,  1.5,  1.5,  1.0,  0.0, -3.0},
-            {-4.0, -2.0,  0.0,  0.0,  0.0,  0.0, -2.0, -4.0},
-            {-5.0, -4.0, -3.0, -3.0, -3.0, -3.0, -4.0, -5.0},
-    };
+    public Iterator<Move> findMove(Board board) {
+        return findMove(board, 2);
+    }
 
-    private static final Double[][] blackhorsescores = rotate(whitehorsescores);
+    // passing is unsound in check and when only the king and pawns are left to move
+    public static boolean zugzwang(Board board) {
+        return board.check() || board.pieces().stream()
+                .filter(piece -> piece.side() == board.side())
+                .allMatch(piece -> piece.type() == PAWN || piece.type() == KING);
+    }
 
-    private static final Double[][] whitepawnsscores = {
-            {0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, 0.0},
-            {0.5,  1.0,  1.0, -2.0, -2.0,  1.0,  1.0, 0.5},
-            {0.5, -0.5, -1.0,  0.0,  0.0, -1.0, -0.5, 0.5},
-            {0.0,  0.0,  0.0,  2.5,  2.5,  0.0,  0.0, 0.0},
-            {0.5,  0.5,  1.0,  2.5,  2.5,  1.0,  0.5, 0.5},
-            {1.0,  1.0,  2.0,  3.0,  3.0,  2.0,  1.0, 1.0},
-            {5.0,  5.0,  5.0,  5.0,  5.0,  5.0,  5.0, 5.0},
-            {0.0,  0.0,  0.0,  0.0,  0.0,  0.0,  0.0, 0.0},
-    };
+    public static long centipawns(double score) {
+        return Math.round(score * CENTIPAWNS);
+    }
 
-    private static final Double[][] blackpawnsscores = rotate(whitepawnsscores);
+    public static double evaluate(Board board) {
+        return board.side().rankAdvanceDirection() * board.score();
+    }
 
-    private static Double[][] rotate(Double[][] table) {
-        final var doubles = new Double[8][8];
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                doubles[7 - i][7 - j] = table[i][j];
-            }
+    public static double evaluate(Side side, Collection<Piece> pieces) {
+        var middlegame = 0.0;
+        var endgame = 0.0;
+        var phase = 0;
+        for (Piece piece : pieces) {
+            middlegame += PieceSquare.middlegame(piece);
+            endgame += PieceSquare.endgame(piece);
+            phase += PieceSquare.phase(piece);
         }
 
-        return doubles;
+        return side.rankAdvanceDirection() * PieceSquare.taper(middlegame, endgame, phase);
     }
-
 }
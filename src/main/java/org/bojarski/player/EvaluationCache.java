@@ -0,0 +1,78 @@
+package org.bojarski.player;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+// always-replace cache in front of a heuristic; the stored key is xored with the score so entries torn by
+// concurrent searches read back as misses, and salted so that empty slots never match
+public class EvaluationCache<S> implements ToDoubleFunction<S> {
+    private static final long SALT = 0x2545F4914F6CDD1DL;
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    public static <S> EvaluationCache<S> of(int kilobytes, ToLongFunction<S> key, ToDoubleFunction<S> heuristic) {
+        return new EvaluationCache<>(kilobytes, key, heuristic);
+    }
+
+    private final ToLongFunction<S> key;
+    private final ToDoubleFunction<S> heuristic;
+    private final long[] keys;
+    private final long[] scores;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private EvaluationCache(int kilobytes, ToLongFunction<S> key, ToDoubleFunction<S> heuristic) {
+        if (kilobytes < 1) {
+            throw new IllegalArgumentException("Evaluation cache needs at least 1KB, got " + kilobytes);
+        }
+
+        final var entries = (int) Long.highestOneBit((long) kilobytes * 1024 / ENTRY_BYTES);
+        this.key = key;
+        this.heuristic = heuristic;
+        this.mask = entries - 1;
+        this.keys = new long[entries];
+        this.scores = new long[entries];
+    }
+
+    @Override
+    public double applyAsDouble(S state) {
+        final var hash = key.applyAsLong(state);
+        final var index = (int) hash & mask;
+        final var bits = scores[index];
+        if ((keys[index] ^ bits ^ SALT) == hash) {
+            hits.increment();
+            return Double.longBitsToDouble(bits);
+        }
+
+        misses.increment();
+        final var score = heuristic.applyAsDouble(state);
+        final var stored = Double.doubleToRawLongBits(score);
+        keys[index] = hash ^ stored ^ SALT;
+        scores[index] = stored;
+
+        return score;
+    }
+
+    // salted keys never match zero, so an emptied slot reads back as a miss
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(scores, 0L);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        final var hits = hits();
+        final var total = hits + misses();
+
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
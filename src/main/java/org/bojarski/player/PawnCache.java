@@ -0,0 +1,142 @@
+package org.bojarski.player;
+
+import org.bojarski.chess.board.bitboard.SearchBoard;
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Piece;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.bojarski.chess.board.bitboard.Bitboards.bit;
+import static org.bojarski.chess.board.map.PieceKind.PAWN;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+// pawn structure from white's point of view, computed once per distinct pawn key; the stored key is xored with the
+// score so entries torn by concurrent searches read back as misses, and salted so that the pawnless key 0 never
+// matches an empty slot
+public class PawnCache {
+    private static final long SALT = 0x61C8864680B583EBL;
+    private static final double DOUBLED = -1.5;
+    private static final double ISOLATED = -1.0;
+    private static final double[] PASSED = {0.0, 1.0, 1.0, 1.5, 2.5, 4.0, 6.0, 0.0};
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    public static PawnCache of(int kilobytes) {
+        return new PawnCache(kilobytes);
+    }
+
+    private final long[] keys;
+    private final long[] scores;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private PawnCache(int kilobytes) {
+        if (kilobytes < 1) {
+            throw new IllegalArgumentException("Pawn cache needs at least 1KB, got " + kilobytes);
+        }
+
+        final var entries = (int) Long.highestOneBit((long) kilobytes * 1024 / ENTRY_BYTES);
+        this.mask = entries - 1;
+        this.keys = new long[entries];
+        this.scores = new long[entries];
+    }
+
+    public double score(Board board) {
+        final var cached = cached(board.pawnKey());
+
+        return Double.isNaN(cached) ? store(board.pawnKey(), structure(board)) : cached;
+    }
+
+    public double score(SearchBoard board) {
+        final var cached = cached(board.pawnKey());
+
+        return Double.isNaN(cached) ? store(board.pawnKey(), structure(board.pawns(WHITE), board.pawns(BLACK))) : cached;
+    }
+
+    // structure scores are never NaN, so it tells a miss apart without boxing
+    private double cached(long key) {
+        final var index = (int) key & mask;
+        final var bits = scores[index];
+        if ((keys[index] ^ bits ^ SALT) == key) {
+            hits.increment();
+            return Double.longBitsToDouble(bits);
+        }
+
+        misses.increment();
+        return Double.NaN;
+    }
+
+    private double store(long key, double score) {
+        final var index = (int) key & mask;
+        final var stored = Double.doubleToRawLongBits(score);
+        keys[index] = key ^ stored ^ SALT;
+        scores[index] = stored;
+
+        return score;
+    }
+
+    // salted keys never match zero, so an emptied slot reads back as a miss
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(scores, 0L);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        final var hits = hits();
+        final var total = hits + misses();
+
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    static double structure(Board board) {
+        var white = 0L;
+        var black = 0L;
+        for (Piece piece : board.pieces()) {
+            if (piece.type() != PAWN) continue;
+            if (piece.side() == WHITE) white |= bit(piece.position());
+            else black |= bit(piece.position());
+        }
+
+        return structure(white, black);
+    }
+
+    static double structure(long white, long black) {
+        return side(white, black, true) - side(black, white, false);
+    }
+
+    // every file is one byte of the bitboard with the first rank in the lowest bit
+    private static double side(long own, long enemy, boolean white) {
+        var score = 0.0;
+        for (int file = 0; file < 8; file++) {
+            final var pawns = file(own, file);
+            if (pawns == 0) continue;
+
+            final var count = Long.bitCount(pawns);
+            if (count > 1) score += DOUBLED * (count - 1);
+            if ((file(own, file - 1) | file(own, file + 1)) == 0) score += ISOLATED * count;
+
+            final var blockers = file(enemy, file - 1) | file(enemy, file) | file(enemy, file + 1);
+            for (long rest = pawns; rest != 0; rest &= rest - 1) {
+                final var rank = Long.numberOfTrailingZeros(rest);
+                final var ahead = white ? 0xFFL << (rank + 1) & 0xFFL : (1L << rank) - 1;
+                if ((blockers & ahead) == 0) score += PASSED[white ? rank : 7 - rank];
+            }
+        }
+
+        return score;
+    }
+
+    private static long file(long pawns, int file) {
+        return file < 0 || file > 7 ? 0L : pawns >>> 8 * file & 0xFFL;
+    }
+}
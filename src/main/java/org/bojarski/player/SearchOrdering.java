@@ -0,0 +1,13 @@
+package org.bojarski.player;
+
+import org.bojarski.chess.board.bitboard.SearchBoard;
+import org.bojarski.chess.board.map.Field;
+import org.bojarski.chess.board.map.PieceKind;
+
+public class SearchOrdering extends CaptureOrdering<SearchBoard> {
+
+    @Override
+    PieceKind mover(SearchBoard board, Field from) {
+        return board.type(from);
+    }
+}
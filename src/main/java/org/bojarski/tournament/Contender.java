@@ -0,0 +1,31 @@
+package org.bojarski.tournament;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.experimental.Accessors;
+import org.bojarski.negamax.Budget;
+import org.bojarski.player.ChessPlayer;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// every game gets fresh players, so no transposition table or cache survives from one game into the next
+@Value
+@Accessors(fluent = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Contender {
+    @NonNull private final String name;
+    @NonNull private final Supplier<ChessPlayer> players;
+    private final int depth;
+    @NonNull private final Budget budget;
+
+    public static Contender of(String name, Supplier<ChessPlayer> players, int depth) {
+        return new Contender(name, players, depth, Budget.unlimited());
+    }
+
+    public static Contender of(String name, Supplier<ChessPlayer> players, int depth, Duration time) {
+        return new Contender(name, players, depth, Budget.of(time));
+    }
+}
@@ -0,0 +1,65 @@
+package org.bojarski.tournament;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.experimental.Accessors;
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Side;
+
+import java.util.List;
+
+@Value
+@Accessors(fluent = true)
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class Game {
+    public enum Result {
+        WHITE("1-0"), BLACK("0-1"), DRAW("1/2-1/2");
+
+        private final String code;
+
+        Result(String code) {
+            this.code = code;
+        }
+    }
+
+    private final int round;
+    private final String white;
+    private final String black;
+    private final Board opening;
+    private final List<String> moves;
+    private final Result result;
+    private final String termination;
+
+    // points of the named contender, one for a win and a half for a draw
+    public double score(String name) {
+        if (result == Result.DRAW) return 0.5;
+
+        return (result == Result.WHITE ? white : black).equals(name) ? 1.0 : 0.0;
+    }
+
+    public String pgn() {
+        final var pgn = new StringBuilder(1024)
+                .append("[Event \"self-play\"]\n")
+                .append("[Round \"").append(round).append("\"]\n")
+                .append("[White \"").append(white).append("\"]\n")
+                .append("[Black \"").append(black).append("\"]\n")
+                .append("[Result \"").append(result.code).append("\"]\n");
+        if (!opening.equals(Board.initialized())) {
+            pgn.append("[SetUp \"1\"]\n[FEN \"").append(opening.toFen()).append("\"]\n");
+        }
+        pgn.append("[Termination \"").append(termination).append("\"]\n\n");
+
+        var number = opening.count() / 2 + 1;
+        var white = opening.side() == Side.WHITE;
+        if (!white && !moves.isEmpty()) pgn.append(number).append("... ");
+        for (String move : moves) {
+            if (white) pgn.append(number).append(". ");
+            pgn.append(move).append(' ');
+            if (!white) number++;
+            white = !white;
+        }
+
+        return pgn.append(result.code).append("\n\n").toString();
+    }
+}
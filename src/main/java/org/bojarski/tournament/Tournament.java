@@ -0,0 +1,220 @@
+package org.bojarski.tournament;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.experimental.Accessors;
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Notation;
+import org.bojarski.chess.board.map.Side;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// games are played in pairs from the same opening with colours swapped, so neither side profits from a lucky start
+@Value
+@Builder(toBuilder = true)
+public class Tournament {
+    private static final int MAX_PLIES = 300;
+    private static final int REPETITIONS = 3;
+    private static final double Z = 1.96;
+
+    @NonNull private final Contender first;
+    @NonNull private final Contender second;
+    private final int games;
+    // games are spread across all cores unless a number of workers is given
+    private final int workers;
+    private final List<Board> openings;
+    private final int randomPlies;
+    private final long seed;
+    private final int maxPlies;
+
+    @Value
+    @Accessors(fluent = true)
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static class Report {
+        private final String first;
+        private final String second;
+        private final int wins;
+        private final int draws;
+        private final int losses;
+        private final long firstNanos;
+        private final long firstMoves;
+        private final long secondNanos;
+        private final long secondMoves;
+
+        public int games() {
+            return wins + draws + losses;
+        }
+
+        public double score() {
+            return games() == 0 ? 0.5 : (wins + 0.5 * draws) / games();
+        }
+
+        public double elo() {
+            return elo(score());
+        }
+
+        // normal approximation of the mean game score, both ends mapped through the logistic curve
+        public double lower() {
+            return elo(score() - Z * error());
+        }
+
+        public double upper() {
+            return elo(score() + Z * error());
+        }
+
+        private double error() {
+            final var count = games();
+            if (count == 0) return 0.0;
+
+            final var score = score();
+            final var variance = (wins * Math.pow(1.0 - score, 2) + draws * Math.pow(0.5 - score, 2) + losses * Math.pow(score, 2)) / count;
+
+            return Math.sqrt(variance / count);
+        }
+
+        private static double elo(double score) {
+            if (score <= 0.0) return Double.NEGATIVE_INFINITY;
+            if (score >= 1.0) return Double.POSITIVE_INFINITY;
+
+            return -400.0 * Math.log10(1.0 / score - 1.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s vs %s: +%d =%d -%d, score %.1f%%, Elo %+.0f [%+.0f, %+.0f], %.0fms vs %.0fms per move",
+                    first, second, wins, draws, losses, 100 * score(), elo(), lower(), upper(),
+                    firstMoves == 0 ? 0.0 : firstNanos / 1e6 / firstMoves,
+                    secondMoves == 0 ? 0.0 : secondNanos / 1e6 / secondMoves);
+        }
+    }
+
+    public Report run(Writer output) throws InterruptedException {
+        if (first.name().equals(second.name())) {
+            throw new IllegalArgumentException("Contenders need distinct names, both are " + first.name());
+        }
+        if (games < 1) {
+            throw new IllegalArgumentException("Tournament needs at least 1 game, got " + games);
+        }
+
+        final var starts = openings == null || openings.isEmpty() ? List.of(Board.initialized()) : openings;
+        final var clocks = new Clocks();
+        final var pool = Executors.newFixedThreadPool(workers > 0 ? workers : Runtime.getRuntime().availableProcessors());
+        final var played = new ArrayList<Future<Game>>(games);
+
+        try {
+            for (int round = 0; round < games; round++) {
+                final var pair = round / 2;
+                final var opening = opening(starts.get(pair % starts.size()), new Random(seed + pair));
+                final var swapped = round % 2 == 1;
+                final var number = round + 1;
+                played.add(pool.submit(() -> {
+                    final var game = swapped ? play(number, opening, second, first, clocks) : play(number, opening, first, second, clocks);
+                    write(output, game.pgn());
+                    return game;
+                }));
+            }
+
+            var wins = 0;
+            var draws = 0;
+            for (Future<Game> future : played) {
+                final var score = future.get().score(first.name());
+                if (score == 1.0) wins++;
+                if (score == 0.5) draws++;
+            }
+
+            return new Report(first.name(), second.name(), wins, draws, games - wins - draws,
+                    clocks.firstNanos.sum(), clocks.firstMoves.sum(), clocks.secondNanos.sum(), clocks.secondMoves.sum());
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private Board opening(Board start, Random random) {
+        var board = start;
+        for (int ply = 0; ply < randomPlies && !board.gameover(); ply++) {
+            final var moves = board.moves();
+            board = board.perform(moves.get(random.nextInt(moves.size())));
+        }
+
+        return board;
+    }
+
+    private Game play(int round, Board opening, Contender white, Contender black, Clocks clocks) {
+        // every game gets fresh players, their helper threads go with them
+        try (var whitePlayer = white.players().get();
+             var blackPlayer = black.players().get()) {
+            final var limit = maxPlies > 0 ? maxPlies : MAX_PLIES;
+            final var seen = new HashMap<Long, Integer>();
+            final var moves = new ArrayList<String>();
+
+            var board = opening;
+            while (true) {
+                if (board.gameover()) {
+                    return board.check()
+                            ? new Game(round, white.name(), black.name(), opening, moves, board.side() == Side.WHITE ? Game.Result.BLACK : Game.Result.WHITE, "checkmate")
+                            : new Game(round, white.name(), black.name(), opening, moves, Game.Result.DRAW, "stalemate");
+                }
+                if (seen.merge(board.key(), 1, Integer::sum) >= REPETITIONS) {
+                    return new Game(round, white.name(), black.name(), opening, moves, Game.Result.DRAW, "repetition");
+                }
+                if (board.pieces().size() == 2) {
+                    return new Game(round, white.name(), black.name(), opening, moves, Game.Result.DRAW, "insufficient material");
+                }
+                if (moves.size() >= limit) {
+                    return new Game(round, white.name(), black.name(), opening, moves, Game.Result.DRAW, "adjudication");
+                }
+
+                final var moving = board.side() == Side.WHITE ? white : black;
+                final var player = board.side() == Side.WHITE ? whitePlayer : blackPlayer;
+                final var started = System.nanoTime();
+                final var move = player.findMove(board, moving.depth(), moving.budget()).next();
+                clocks.add(moving == first, System.nanoTime() - started);
+
+                moves.add(Notation.san(board, move));
+                board = board.perform(move);
+            }
+        }
+    }
+
+    private static void write(Writer output, String pgn) {
+        if (output == null) return;
+
+        synchronized (output) {
+            try {
+                output.write(pgn);
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static class Clocks {
+        private final LongAdder firstNanos = new LongAdder();
+        private final LongAdder firstMoves = new LongAdder();
+        private final LongAdder secondNanos = new LongAdder();
+        private final LongAdder secondMoves = new LongAdder();
+
+        private void add(boolean first, long nanos) {
+            (first ? firstNanos : secondNanos).add(nanos);
+            (first ? firstMoves : secondMoves).increment();
+        }
+    }
+}
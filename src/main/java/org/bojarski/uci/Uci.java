@@ -0,0 +1,356 @@
+package org.bojarski.uci;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.Notation;
+import org.bojarski.chess.board.map.Side;
+import org.bojarski.negamax.Budget;
+import org.bojarski.negamax.Statistics;
+import org.bojarski.player.ChessPlayer;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+
+// searches run on their own thread so stop, ponderhit and isready are answered while the engine thinks
+public class Uci {
+    private static final String NAME = "chess-ai";
+    private static final String AUTHOR = "Arkadiusz Bojarski";
+    private static final int HASH = 16;
+    private static final int MAX_HASH = 1024;
+    private static final int THREADS = 1;
+    private static final int MAX_THREADS = 64;
+    private static final int MAX_DEPTH = 64;
+    private static final int MOVES_TO_GO = 30;
+    private static final long REPORT_INTERVAL = 100;
+
+    private final Scanner input;
+    private final PrintStream output;
+    private final ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "uci-clock");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int hash = HASH;
+    private int threads = THREADS;
+    private ChessPlayer player = new ChessPlayer(hash, threads);
+    private Board board = Board.initialized();
+
+    private Thread searching;
+    private CountDownLatch released = new CountDownLatch(0);
+    private ScheduledFuture<?> timer;
+    private volatile long pondered;
+    private boolean unbounded;
+
+    public Uci(Scanner input, PrintStream output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    public void run() {
+        while (input.hasNextLine()) {
+            final var line = input.nextLine().trim();
+            if (line.isEmpty()) continue;
+
+            final var command = line.split("\\s+", 2);
+            final var arguments = command.length > 1 ? command[1] : "";
+            try {
+                switch (command[0]) {
+                    case "uci":
+                        identify();
+                        break;
+                    case "isready":
+                        send("readyok");
+                        break;
+                    case "setoption":
+                        option(arguments);
+                        break;
+                    case "ucinewgame":
+                        await();
+                        player.close();
+                        player = new ChessPlayer(hash, threads);
+                        board = Board.initialized();
+                        break;
+                    case "position":
+                        await();
+                        position(arguments);
+                        break;
+                    case "go":
+                        await();
+                        go(arguments);
+                        break;
+                    case "stop":
+                        stop();
+                        break;
+                    case "ponderhit":
+                        ponderhit();
+                        break;
+                    case "quit":
+                        stop();
+                        await();
+                        player.close();
+                        clock.shutdownNow();
+                        return;
+                    default:
+                        send("info string unknown command " + command[0]);
+                }
+            } catch (RuntimeException e) {
+                send("info string " + e.getMessage());
+            }
+        }
+
+        // a closed input lets a bounded search finish and answer instead of cutting it short, nothing would ever stop
+        // an unbounded one
+        if (unbounded) stop();
+        released.countDown();
+        await();
+        player.close();
+        clock.shutdownNow();
+    }
+
+    public void identify() {
+        send("id name " + NAME);
+        send("id author " + AUTHOR);
+        send("option name Hash type spin default " + HASH + " min 1 max " + MAX_HASH);
+        send("option name Threads type spin default " + THREADS + " min 1 max " + MAX_THREADS);
+        send("uciok");
+    }
+
+    private void option(String arguments) {
+        final var name = between(arguments, "name", "value");
+        final var value = between(arguments, "value", null);
+
+        switch (name.toLowerCase()) {
+            case "hash":
+                hash = bounded(value, MAX_HASH);
+                break;
+            case "threads":
+                threads = bounded(value, MAX_THREADS);
+                break;
+            default:
+                throw new IllegalArgumentException("No option " + name);
+        }
+
+        await();
+        player.close();
+        player = new ChessPlayer(hash, threads);
+    }
+
+    private void position(String arguments) {
+        final var tokens = List.of(arguments.split("\\s+"));
+        final var moves = tokens.indexOf("moves");
+        final var setup = moves < 0 ? tokens : tokens.subList(0, moves);
+
+        var position = setup.get(0).equals("startpos") ? Board.initialized()
+                : setup.get(0).equals("fen") ? Board.fromFen(String.join(" ", setup.subList(1, setup.size())))
+                : null;
+        if (position == null) {
+            throw new IllegalArgumentException("No position " + setup.get(0));
+        }
+
+        if (moves >= 0) {
+            for (String move : tokens.subList(moves + 1, tokens.size())) {
+                position = position.perform(Notation.uci(position, move));
+            }
+        }
+
+        board = position;
+    }
+
+    private void go(String arguments) {
+        final var limits = limits(arguments);
+        final var depth = limits.containsKey("depth") ? (int) Math.min(limits.get("depth"), MAX_DEPTH) : MAX_DEPTH;
+        final var infinite = limits.containsKey("infinite");
+        final var ponder = limits.containsKey("ponder");
+        final var budget = budget(limits);
+
+        final var position = board;
+        final var current = player;
+        if (timer != null) timer.cancel(false);
+        released = new CountDownLatch(infinite || ponder ? 1 : 0);
+        pondered = ponder ? budget.hard() : 0;
+        unbounded = infinite || ponder || budget.hard() == Long.MAX_VALUE && !limits.containsKey("depth");
+
+        // the search is created here and only run on the thread, so a stop read right after go already reaches it
+        final var variation = current.findMove(position, depth, ponder ? Budget.unlimited() : budget);
+        searching = new Thread(() -> search(current, variation), "uci-search");
+        searching.start();
+    }
+
+    private void search(ChessPlayer current, Iterator<Move> variation) {
+        final var reporter = new Reporter(current);
+        final var reporting = clock.scheduleAtFixedRate(reporter, REPORT_INTERVAL, REPORT_INTERVAL, TimeUnit.MILLISECONDS);
+
+        final var line = new ArrayList<Move>();
+        try {
+            if (variation.hasNext()) line.add(variation.next());
+            variation.forEachRemaining(line::add);
+        } finally {
+            reporting.cancel(false);
+            reporter.run();
+        }
+
+        final var statistics = current.statistics();
+        send("info depth " + statistics.depth()
+                + " seldepth " + statistics.selective()
+                + " nodes " + statistics.nodes()
+                + " nps " + statistics.nps()
+                + " time " + statistics.nanos() / 1000000
+                + pv(line));
+
+        // uci forbids answering an infinite or pondering search before the gui says so
+        try {
+            released.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (line.isEmpty()) {
+            send("bestmove 0000");
+        } else {
+            send("bestmove " + Notation.uci(line.get(0)) + (line.size() > 1 ? " ponder " + Notation.uci(line.get(1)) : ""));
+        }
+    }
+
+    private void stop() {
+        player.stop();
+        released.countDown();
+    }
+
+    // the pondering search was started without limits, the clock now stops it after the budget of the expected move
+    private void ponderhit() {
+        final var budget = pondered;
+        final var current = player;
+        if (budget > 0 && budget != Long.MAX_VALUE) {
+            timer = clock.schedule(current::stop, budget, TimeUnit.NANOSECONDS);
+        }
+        released.countDown();
+    }
+
+    private void await() {
+        final var thread = searching;
+        if (thread == null) return;
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searching = null;
+    }
+
+    private Budget budget(Map<String, Long> limits) {
+        if (limits.containsKey("movetime")) {
+            final var movetime = Duration.ofMillis(limits.get("movetime"));
+            return Budget.of(movetime, movetime);
+        }
+
+        final var time = limits.get(board.side() == Side.WHITE ? "wtime" : "btime");
+        if (time == null) return Budget.unlimited();
+
+        final var increment = limits.getOrDefault(board.side() == Side.WHITE ? "winc" : "binc", 0L);
+        final var togo = Math.max(1, limits.getOrDefault("movestogo", (long) MOVES_TO_GO));
+        final var allotted = Math.max(1, Math.min(time / togo + increment * 3 / 4, time / 2));
+
+        return Budget.of(Duration.ofMillis(allotted), Duration.ofMillis(Math.max(allotted, Math.min(3 * allotted, time / 2))));
+    }
+
+    private void send(String message) {
+        synchronized (output) {
+            output.println(message);
+            output.flush();
+        }
+    }
+
+    private static Map<String, Long> limits(String arguments) {
+        final var limits = new HashMap<String, Long>();
+        final var tokens = arguments.isBlank() ? new String[0] : arguments.trim().split("\\s+");
+        for (int index = 0; index < tokens.length; index++) {
+            switch (tokens[index]) {
+                case "infinite":
+                case "ponder":
+                    limits.put(tokens[index], 0L);
+                    break;
+                case "searchmoves":
+                    throw new UnsupportedOperationException("searchmoves is not supported");
+                default:
+                    if (index + 1 >= tokens.length) {
+                        throw new IllegalArgumentException("No value for " + tokens[index]);
+                    }
+                    limits.put(tokens[index], parseLong(tokens[++index]));
+            }
+        }
+
+        return limits;
+    }
+
+    private static String between(String arguments, String from, String to) {
+        final var tokens = Arrays.asList(arguments.trim().split("\\s+"));
+        final var start = tokens.indexOf(from);
+        final var end = to == null ? -1 : tokens.indexOf(to);
+        if (start < 0) {
+            throw new IllegalArgumentException("No " + from + " in " + arguments);
+        }
+
+        return String.join(" ", tokens.subList(start + 1, end < 0 ? tokens.size() : end));
+    }
+
+    private static int bounded(String value, int maximum) {
+        final var parsed = parseInt(value);
+        if (parsed < 1 || parsed > maximum) {
+            throw new IllegalArgumentException("Value " + parsed + " is not between 1 and " + maximum);
+        }
+
+        return parsed;
+    }
+
+    private static String pv(List<Move> line) {
+        if (line.isEmpty()) return "";
+
+        final var pv = new StringBuilder(" pv");
+        for (Move move : line) pv.append(' ').append(Notation.uci(move));
+
+        return pv.toString();
+    }
+
+    // iterations are reported as the main worker completes them
+    private class Reporter implements Runnable {
+        private final ChessPlayer current;
+        private int reported;
+        private long nodes;
+        private long nanos;
+
+        private Reporter(ChessPlayer current) {
+            this.current = current;
+        }
+
+        @Override
+        public synchronized void run() {
+            final var iterations = current.statistics().iterations();
+            for (; reported < iterations.size(); reported++) {
+                final Statistics.Iteration iteration = iterations.get(reported);
+                nodes += iteration.nodes();
+                nanos += iteration.nanos();
+                send("info depth " + iteration.depth()
+                        + " score cp " + ChessPlayer.centipawns(iteration.score())
+                        + " nodes " + nodes
+                        + " time " + nanos / 1000000);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.bojarski.chess.board.bitboard;
+
+import org.bojarski.chess.board.map.Field;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.Perft;
+import org.bojarski.chess.board.map.PieceKind;
+import org.bojarski.chess.board.map.Side;
+import org.bojarski.negamax.Domain;
+import org.bojarski.negamax.NegaMax;
+import org.bojarski.negamax.Search;
+import org.bojarski.player.ChessPlayer;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class BoardTest {
+    private static final List<String> CORPUS = List.of(
+            "wKh1 bBe3 bBf3 bQh3",
+            "bPg8 wPh7",
+            "wKh1 wRb3 wRc3 wPc4 bKa8",
+            "wPc2 wKc1 bRc7",
+            "wRc2 bPc3 bHd5",
+            "wKe1 wRe2 bQe8 bKa8 wBd2 bBa5",
+            "wKd4 bPe5 bKh8 wQa1",
+            "wKa1 bPb2 bKh8 wRh1",
+            "wKe4 wPd2 wPe2 wPf7 bKa8 bRg8 bHd6 bBb1",
+            "wKb6 wPa7 wPb7 bKa8 bRh8 bQh1 bPa2",
+            "wKe1 wQd1 wHb1 wHg1 wBc1 wBf1 wRa1 wRh1 bKe8 bQd8 bPd7 bPe7 bPf7 bBf8 bHc6"
+    );
+
+    @Test
+    public void shouldGenerateSameMovesAsMapBoardOnCorpus() {
+        for (String position : CORPUS) {
+            thenSameMoves(mapBoard(position), bitBoard(position));
+        }
+    }
+
+    @Test
+    public void shouldGenerateSameMovesAsMapBoardInRandomGames() {
+        final var random = new Random(7);
+
+        for (String position : CORPUS) {
+            playout(mapBoard(position), bitBoard(position), random);
+        }
+        for (int game = 0; game < 20; game++) {
+            playout(org.bojarski.chess.board.map.Board.initialized(), Board.initialized(), random);
+        }
+    }
+
+    @Test
+    public void shouldEvaluateSameAsMapBoard() {
+        var map = org.bojarski.chess.board.map.Board.initialized().perform(move(E2, E4));
+        var bitboard = Board.initialized().perform(move(E2, E4));
+
+        then(ChessPlayer.evaluate(bitboard.side(), bitboard.pieces())).isEqualTo(ChessPlayer.evaluate(map));
+        then(bitboard.print()).isEqualTo(map.print());
+    }
+
+    @Test
+    public void shouldConvertMapBoardsKeepingPawnSteps() {
+        final var random = new Random(11);
+
+        for (Perft.Position position : Perft.SUITE) {
+            var map = position.board();
+            for (int ply = 0; ply < 20 && !map.gameover(); ply++) {
+                then(Board.of(map).count()).isEqualTo(map.count());
+                thenSameMoves(map, Board.of(map));
+                map = map.perform(map.moves().get(random.nextInt(map.moves().size())));
+            }
+        }
+
+        final var advanced = org.bojarski.chess.board.map.Board.empty().placePiece(WHITE, PAWN, E4);
+        then(Board.of(advanced).moves()).contains(move(E4, E6));
+    }
+
+    @Test
+    public void shouldSearchToSameScoreAsMapBoard() {
+        final var mapDomain = Domain.<org.bojarski.chess.board.map.Board, Move>builder()
+                .actionPerformer(org.bojarski.chess.board.map.Board::perform)
+                .actionsProducer(org.bojarski.chess.board.map.Board::moves)
+                .build();
+        final var bitboardDomain = Domain.<Board, Move>builder()
+                .actionPerformer(Board::perform)
+                .actionsProducer(Board::moves)
+                .build();
+
+        for (Perft.Position position : Perft.SUITE) {
+            final var map = position.board();
+            final Search<org.bojarski.chess.board.map.Board, Move> expected = NegaMax.of(ChessPlayer::evaluate, mapDomain)
+                    .search(map, org.bojarski.chess.board.map.Board::gameover, 3);
+            final Search<Board, Move> actual = NegaMax.<Board, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), bitboardDomain)
+                    .search(Board.of(map), Board::gameover, 3);
+
+            final var move = actual.iterator().next();
+            expected.iterator().next();
+
+            then(map.moves()).contains(move);
+            then(score(actual)).isEqualTo(score(expected));
+        }
+    }
+
+    @Test
+    public void shouldNotHaveLegalMovesWhenCheckmated() {
+        final var board = Board.empty()
+                .placePiece(WHITE, KING, H1)
+                .placePiece(BLACK, BISHOP, E3)
+                .placePiece(BLACK, BISHOP, F3)
+                .placePiece(BLACK, QUEEN, H3);
+
+        then(board.gameover()).isTrue();
+    }
+
+    @Test
+    public void shouldPromoteThroughCapture() {
+        final var board = Board.empty()
+                .placePiece(BLACK, PAWN, G8)
+                .placePiece(WHITE, PAWN, H7);
+
+        then(board.moves()).contains(Move.queenPromotion(H7, G8, PAWN.of(BLACK, G8)));
+    }
+
+    private static double score(Search<?, Move> search) {
+        final var iterations = search.statistics().iterations();
+
+        return iterations.get(iterations.size() - 1).score();
+    }
+
+    private static void playout(org.bojarski.chess.board.map.Board map, Board bitboard, Random random) {
+        for (int ply = 0; ply < 60 && !map.gameover(); ply++) {
+            thenSameMoves(map, bitboard);
+
+            final var move = map.moves().get(random.nextInt(map.moves().size()));
+            map = map.perform(move);
+            bitboard = bitboard.perform(move);
+        }
+
+        thenSameMoves(map, bitboard);
+    }
+
+    private static void thenSameMoves(org.bojarski.chess.board.map.Board map, Board bitboard) {
+        then(bitboard.side()).isEqualTo(map.side());
+        then(bitboard.moves()).containsExactlyInAnyOrderElementsOf(map.moves());
+        then(bitboard.pieces()).containsExactlyInAnyOrderElementsOf(map.pieces());
+        then(bitboard.gameover()).isEqualTo(map.gameover());
+    }
+
+    private static org.bojarski.chess.board.map.Board mapBoard(String position) {
+        var board = org.bojarski.chess.board.map.Board.empty();
+        for (String code : position.split(" ")) {
+            board = board.placePiece(side(code), kind(code), field(code));
+        }
+
+        return board;
+    }
+
+    private static Board bitBoard(String position) {
+        var board = Board.empty();
+        for (String code : position.split(" ")) {
+            board = board.placePiece(side(code), kind(code), field(code));
+        }
+
+        return board;
+    }
+
+    private static Side side(String code) {
+        return code.charAt(0) == 'w' ? WHITE : BLACK;
+    }
+
+    private static PieceKind kind(String code) {
+        return PieceKind.byCode(code.substring(1, 2)).orElseThrow();
+    }
+
+    private static Field field(String code) {
+        return Field.byCode(code.substring(2)).orElseThrow();
+    }
+}
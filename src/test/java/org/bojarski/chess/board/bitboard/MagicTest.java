@@ -0,0 +1,44 @@
+package org.bojarski.chess.board.bitboard;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.bitboard.Bitboards.slide;
+
+public class MagicTest {
+
+    @Test
+    public void shouldMatchRayAttacks() {
+        final var random = new Random(11);
+
+        for (int sample = 0; sample < 2000; sample++) {
+            final var occupancy = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                final var rook = slide(square, occupancy, 0, +1) | slide(square, occupancy, +1, 0) |
+                        slide(square, occupancy, 0, -1) | slide(square, occupancy, -1, 0);
+                final var bishop = slide(square, occupancy, +1, +1) | slide(square, occupancy, +1, -1) |
+                        slide(square, occupancy, -1, -1) | slide(square, occupancy, -1, +1);
+
+                then(Magic.rook(square, occupancy)).isEqualTo(rook);
+                then(Magic.bishop(square, occupancy)).isEqualTo(bishop);
+                then(Magic.queen(square, occupancy)).isEqualTo(rook | bishop);
+            }
+        }
+    }
+
+    @Test
+    public void shouldBuildTablesAtStartup() {
+        then(Magic.initialization()).isPositive().isLessThan(1_000_000_000L);
+
+        for (long occupancy : new long[]{0L, -1L}) {
+            for (int square = 0; square < 64; square++) {
+                then(Magic.rook(square, occupancy)).isEqualTo(slide(square, occupancy, 0, +1) | slide(square, occupancy, +1, 0) |
+                        slide(square, occupancy, 0, -1) | slide(square, occupancy, -1, 0));
+                then(Magic.bishop(square, occupancy)).isEqualTo(slide(square, occupancy, +1, +1) | slide(square, occupancy, +1, -1) |
+                        slide(square, occupancy, -1, -1) | slide(square, occupancy, -1, +1));
+            }
+        }
+    }
+}
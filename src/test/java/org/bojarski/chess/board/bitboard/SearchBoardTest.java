@@ -0,0 +1,243 @@
+package org.bojarski.chess.board.bitboard;
+
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.negamax.Domain;
+import org.bojarski.negamax.MutableDomain;
+import org.bojarski.negamax.NegaMax;
+import org.bojarski.player.ChessPlayer;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.within;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class SearchBoardTest {
+
+    @Test
+    public void shouldFollowImmutableBoardInRandomGames() {
+        final var random = new Random(3);
+
+        for (int game = 0; game < 20; game++) {
+            var board = Board.initialized();
+            final var search = SearchBoard.of(board);
+
+            for (int ply = 0; ply < 80 && !board.gameover(); ply++) {
+                then(search.moves()).containsExactlyElementsOf(board.moves());
+
+                final var move = board.moves().get(random.nextInt(board.moves().size()));
+                board = board.perform(move);
+                search.make(move);
+            }
+
+            then(search).isEqualTo(SearchBoard.of(board));
+        }
+    }
+
+    @Test
+    public void shouldRestoreStateExactlyOnUnmake() {
+        final var random = new Random(5);
+
+        for (int game = 0; game < 20; game++) {
+            final var search = SearchBoard.of(Board.initialized());
+            final var snapshots = new ArrayList<SearchBoard>();
+            final var moves = new ArrayList<Move>();
+
+            for (int ply = 0; ply < 80 && !search.gameover(); ply++) {
+                final var legal = search.moves();
+                final var move = legal.get(random.nextInt(legal.size()));
+                snapshots.add(replay(moves));
+                moves.add(move);
+                search.make(move);
+            }
+
+            for (int ply = moves.size() - 1; ply >= 0; ply--) {
+                search.unmake(moves.get(ply));
+                then(search).isEqualTo(snapshots.get(ply));
+            }
+        }
+    }
+
+    @Test
+    public void shouldRestorePromotedCapture() {
+        final var board = Board.empty()
+                .placePiece(BLACK, ROOK, G8)
+                .placePiece(WHITE, PAWN, H7)
+                .placePiece(WHITE, KING, A1)
+                .placePiece(BLACK, KING, A8);
+        final var search = SearchBoard.of(board);
+        final var promotion = Move.knightPromotion(H7, G8, ROOK.of(BLACK, G8));
+
+        search.make(promotion);
+        then(search).isEqualTo(SearchBoard.of(board.perform(promotion)));
+        then(search.pieces()).contains(KNIGHT.of(WHITE, G8)).doesNotContain(ROOK.of(BLACK, G8));
+
+        search.unmake(promotion);
+        then(search).isEqualTo(SearchBoard.of(board));
+        then(search.moves()).containsExactlyElementsOf(board.moves());
+    }
+
+    @Test
+    public void shouldRestorePawnInitialFlag() {
+        final var board = Board.initialized();
+        final var search = SearchBoard.of(board);
+
+        search.make(move(E2, E3));
+        search.make(move(E7, E6));
+        then(search.moves()).doesNotContain(move(E3, E5));
+
+        search.unmake(move(E7, E6));
+        search.unmake(move(E2, E3));
+        then(search.moves()).contains(move(E2, E4));
+        then(search).isEqualTo(SearchBoard.of(board));
+    }
+
+    @Test
+    public void shouldTrackKeysAndScoreLikeMapBoard() {
+        final var random = new Random(9);
+
+        for (int game = 0; game < 20; game++) {
+            var map = org.bojarski.chess.board.map.Board.initialized();
+            final var search = SearchBoard.of(map);
+            final var moves = new ArrayList<Move>();
+
+            for (int ply = 0; ply < 80 && !map.gameover(); ply++) {
+                final var move = map.moves().get(random.nextInt(map.moves().size()));
+                map = map.perform(move);
+                search.make(move);
+                moves.add(move);
+
+                then(search.key()).isEqualTo(map.key());
+                then(search.pawnKey()).isEqualTo(map.pawnKey());
+                then(search.score()).isCloseTo(map.score(), within(1e-9));
+                then(search.check()).isEqualTo(map.check());
+            }
+
+            for (int ply = moves.size() - 1; ply >= 0; ply--) search.unmake(moves.get(ply));
+            then(search.key()).isEqualTo(org.bojarski.chess.board.map.Board.initialized().key());
+            then(search.score()).isZero();
+        }
+    }
+
+    @Test
+    public void shouldHandTurnBackAfterPassing() {
+        final var map = org.bojarski.chess.board.map.Board.initialized().perform(move(E2, E4));
+        final var search = SearchBoard.of(map);
+
+        search.pass();
+        then(search.side()).isEqualTo(WHITE);
+        then(search.key()).isEqualTo(map.pass().key());
+        then(search.moves()).containsExactlyInAnyOrderElementsOf(map.pass().moves());
+
+        search.pass();
+        then(search).isEqualTo(SearchBoard.of(map));
+        then(search.key()).isEqualTo(map.key());
+    }
+
+    @Test
+    public void shouldGuardNullMoveInPawnEndings() {
+        final var ending = org.bojarski.chess.board.map.Board.empty()
+                .placePiece(WHITE, KING, E1).placePiece(WHITE, PAWN, E4)
+                .placePiece(BLACK, KING, E8).placePiece(BLACK, ROOK, A8);
+
+        then(SearchBoard.of(ending).zugzwang()).isTrue();
+        then(SearchBoard.of(ending.pass()).zugzwang()).isFalse();
+        then(SearchBoard.of(ending).type(E4)).isEqualTo(PAWN);
+        then(SearchBoard.of(ending).type(E5)).isNull();
+    }
+
+    // the same tree is searched in both, so the difference is what copying a board per node costs
+    @Test
+    public void shouldAllocateLessThanImmutableSearch() {
+        final var immutable = Domain.<Board, Move>builder()
+                .actionPerformer(Board::perform)
+                .actionsProducer(Board::moves)
+                .build();
+        final var mutable = MutableDomain.<SearchBoard, Move>builder()
+                .actionMaker(SearchBoard::make)
+                .actionUnmaker(SearchBoard::unmake)
+                .actionsProducer(SearchBoard::moves)
+                .build();
+        final var board = Board.initialized().perform(move(E2, E4)).perform(move(E7, E5)).perform(move(G1, F3));
+        final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final var thread = Thread.currentThread().getId();
+
+        NegaMax.<Board, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), immutable).search(board, Board::gameover, 3).iterator().next();
+        NegaMax.<SearchBoard, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), mutable).search(SearchBoard.of(board), SearchBoard::gameover, 3).iterator().next();
+
+        var before = threads.getThreadAllocatedBytes(thread);
+        final var expected = NegaMax.<Board, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), immutable)
+                .search(board, Board::gameover, 3).iterator().next();
+        final var copying = threads.getThreadAllocatedBytes(thread) - before;
+
+        before = threads.getThreadAllocatedBytes(thread);
+        final var actual = NegaMax.<SearchBoard, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), mutable)
+                .search(SearchBoard.of(board), SearchBoard::gameover, 3).iterator().next();
+        final var making = threads.getThreadAllocatedBytes(thread) - before;
+
+        System.out.printf("depth 3 allocates %d bytes copying boards, %d bytes making and unmaking moves%n", copying, making);
+        then(actual).isEqualTo(expected);
+        then(making).isLessThan(copying / 2);
+    }
+
+    @Test
+    public void shouldFindSameMoveAsImmutableSearch() {
+        final var immutable = Domain.<Board, Move>builder()
+                .actionPerformer(Board::perform)
+                .actionsProducer(Board::moves)
+                .build();
+        final var mutable = MutableDomain.<SearchBoard, Move>builder()
+                .actionMaker(SearchBoard::make)
+                .actionUnmaker(SearchBoard::unmake)
+                .actionsProducer(SearchBoard::moves)
+                .build();
+
+        var board = Board.initialized().perform(move(D2, D4)).perform(move(D7, D5)).perform(move(C2, C4));
+        final var search = SearchBoard.of(board);
+
+        final var expected = NegaMax.<Board, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), immutable)
+                .search(board, Board::gameover, 3).iterator().next();
+        final var actual = NegaMax.<SearchBoard, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), mutable)
+                .search(search, SearchBoard::gameover, 3).iterator().next();
+
+        then(actual).isEqualTo(expected);
+        then(search).isEqualTo(SearchBoard.of(board));
+    }
+
+    @Test
+    public void shouldSearchCopiesInHelperThreads() {
+        final var mutable = MutableDomain.<SearchBoard, Move>builder()
+                .actionMaker(SearchBoard::make)
+                .actionUnmaker(SearchBoard::unmake)
+                .actionsProducer(SearchBoard::moves)
+                .stateCopier(SearchBoard::copy)
+                .build();
+
+        final var board = Board.initialized().perform(move(E2, E4)).perform(move(E7, E5));
+        final var search = SearchBoard.of(board);
+
+        final var expected = NegaMax.<SearchBoard, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), mutable)
+                .search(SearchBoard.of(board), SearchBoard::gameover, 3).iterator().next();
+        final var actual = NegaMax.<SearchBoard, Move>of(b -> ChessPlayer.evaluate(b.side(), b.pieces()), mutable)
+                .toBuilder().threads(4).build()
+                .search(search, SearchBoard::gameover, 3).iterator().next();
+
+        then(actual).isEqualTo(expected);
+        then(search).isEqualTo(SearchBoard.of(board));
+    }
+
+    private static SearchBoard replay(List<Move> moves) {
+        var board = Board.initialized();
+        for (Move move : moves) board = board.perform(move);
+
+        return SearchBoard.of(board);
+    }
+}
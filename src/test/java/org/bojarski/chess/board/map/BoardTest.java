@@ -50,28 +50,18 @@ public class BoardTest {
 
     @Test
     public void speedtest() {
-        final var initial = Board.initialized();
-        var count = 0;
-
-        List<Board> extended = new ArrayList<>();
-        extended.add(initial);
-
-        final var start = System.nanoTime();
-        for (int i = 0; i < 6; i++) {
-            final List<Board> children = new ArrayList<>();
-            for (Board board : extended) {
-                for (Move move : board.moves()) {
-                    final var child = board.perform(move);
-                    children.add(child);
-                }
-            }
-            extended.clear();
-            extended.addAll(children);
-            count += extended.size();
+        var total = 0L;
+        var elapsed = 0L;
+        for (Perft.Position position : Perft.SUITE) {
+            final var start = System.nanoTime();
+            final var nodes = Perft.perft(position.board(), position.depth());
+            elapsed += System.nanoTime() - start;
+            total += nodes;
+
+            then(nodes).as(position.name()).isEqualTo(position.nodes()[position.depth() - 1]);
         }
-        final var end = System.nanoTime();
 
-        System.out.println(count + " nodes extended in " + (end - start) / 1000000 + "ms");
+        System.out.println(total + " nodes in " + elapsed / 1000000 + "ms, " + total * 1000000000L / elapsed + " nodes/s");
     }
 
     @Test
@@ -118,11 +108,7 @@ public class BoardTest {
             final var search = player.findMove(board);
             final var start = System.nanoTime();
 
-            Move move = null;
-
-            for (int i = 0; i < 3 && search.hasNext(); i++) {
-                move = search.next();
-            }
+            final var move = search.next();
 
             board = board.perform(move);
             System.out.println(board.print());
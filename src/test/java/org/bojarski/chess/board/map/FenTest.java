@@ -0,0 +1,95 @@
+package org.bojarski.chess.board.map;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class FenTest {
+
+    @Test
+    public void shouldReadInitialPosition() {
+        final var board = Board.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+
+        then(board).isEqualTo(Board.initialized());
+        then(board.key()).isEqualTo(Board.initialized().key());
+        then(board.pawnKey()).isEqualTo(Board.initialized().pawnKey());
+        then(board.score()).isEqualTo(Board.initialized().score());
+        then(board.count()).isEqualTo(0);
+        then(board.toFen()).isEqualTo("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+    }
+
+    @Test
+    public void shouldRoundTripPositionsOfRandomGames() {
+        final var random = new Random(17);
+
+        for (int game = 0; game < 20; game++) {
+            var board = Board.initialized();
+            for (int ply = 0; ply < 80 && !board.gameover(); ply++) {
+                final var read = Board.fromFen(board.toFen());
+
+                then(read).isEqualTo(board);
+                then(read.key()).isEqualTo(board.key());
+                then(read.count()).isEqualTo(board.count());
+                then(read.moves()).containsExactlyInAnyOrderElementsOf(board.moves());
+                then(read.toFen()).isEqualTo(board.toFen());
+
+                board = board.perform(board.moves().get(random.nextInt(board.moves().size())));
+            }
+        }
+    }
+
+    @Test
+    public void shouldDerivePawnInitialFlagFromRank() {
+        final var board = Board.fromFen("4k3/p7/8/2p5/8/2P5/P7/4K3 b - - 0 12");
+
+        then(board.side()).isEqualTo(BLACK);
+        then(board.count()).isEqualTo(23);
+        then(board.moves()).contains(move(A7, A5)).contains(move(C5, C4));
+        then(board.pass().moves()).contains(move(A2, A4)).doesNotContain(move(C3, C5));
+        then(board.piece(C3)).hasValueSatisfying(pawn -> then(((Pawn) pawn).initial()).isFalse());
+    }
+
+    @Test
+    public void shouldKeepHalfmoveClock() {
+        final var board = Board.fromFen("4k3/4p3/8/8/8/8/8/R3K3 b - - 17 30");
+
+        then(board.halfmove()).isEqualTo(17);
+        then(board.toFen()).isEqualTo("4k3/4p3/8/8/8/8/8/R3K3 b - - 17 30");
+        then(board.perform(move(E8, D8)).toFen()).endsWith(" w - - 18 31");
+        then(board.perform(move(E7, E6)).toFen()).endsWith(" w - - 0 31");
+        then(board.perform(move(E8, D8)).perform(move(A1, A8)).perform(move(D8, C7)).halfmove()).isEqualTo(20);
+    }
+
+    @Test
+    public void shouldReadPositionWithoutMoveCounters() {
+        final var board = Board.fromFen("4k3/8/8/8/8/8/8/R3K3 b");
+
+        then(board).isEqualTo(Board.empty()
+                .placePiece(WHITE, ROOK, A1).placePiece(WHITE, KING, E1).placePiece(BLACK, KING, E8).pass());
+        then(board.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRejectMalformedFen() {
+        final var malformed = new ArrayList<String>();
+        malformed.add("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w - - 0 1");
+        malformed.add("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        malformed.add("rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1");
+        malformed.add("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w - - 0 1");
+        malformed.add("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x - - 0 1");
+        malformed.add("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 one");
+
+        for (String fen : malformed) {
+            thenThrownBy(() -> Board.fromFen(fen)).as(fen).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.bojarski.chess.board.map;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class KingSafetyTest {
+
+    @Test
+    public void shouldMatchReplyGenerationPerft() {
+        final var positions = List.of(
+                Board.initialized(),
+                Board.initialized().perform(move(E2, E4)).perform(move(F7, F6)).perform(move(D1, H5)),
+                Board.empty()
+                        .placePiece(WHITE, KING, E1).placePiece(WHITE, ROOK, E2).placePiece(WHITE, BISHOP, D2)
+                        .placePiece(BLACK, KING, A8).placePiece(BLACK, QUEEN, E8).placePiece(BLACK, BISHOP, A5),
+                Board.empty()
+                        .placePiece(WHITE, KING, E4).placePiece(WHITE, PAWN, D2).placePiece(WHITE, KNIGHT, F3)
+                        .placePiece(BLACK, KING, A8).placePiece(BLACK, ROOK, G8).placePiece(BLACK, KNIGHT, D6).placePiece(BLACK, PAWN, F5),
+                Board.empty()
+                        .placePiece(WHITE, KING, A1).placePiece(WHITE, ROOK, H1).placePiece(WHITE, QUEEN, C3)
+                        .placePiece(BLACK, KING, H8).placePiece(BLACK, PAWN, B2).placePiece(BLACK, QUEEN, A8)
+        );
+
+        for (Board board : positions) {
+            for (int depth = 1; depth <= 3; depth++) {
+                then(perft(board, depth)).isEqualTo(reference(board, depth));
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchReplyGenerationInRandomGames() {
+        final var random = new Random(13);
+
+        for (int game = 0; game < 30; game++) {
+            var board = Board.initialized();
+            for (int ply = 0; ply < 100 && !board.gameover(); ply++) {
+                then(board.moves()).containsExactlyInAnyOrderElementsOf(referenceMoves(board));
+                board = board.perform(board.moves().get(random.nextInt(board.moves().size())));
+            }
+        }
+    }
+
+    @Test
+    public void shouldDetectPawnCheck() {
+        final var board = Board.empty()
+                .placePiece(WHITE, KING, E4)
+                .placePiece(WHITE, PAWN, A2)
+                .placePiece(BLACK, PAWN, D5)
+                .placePiece(BLACK, KING, H8);
+
+        then(board.check()).isTrue();
+        then(board.moves()).doesNotContain(move(A2, A3)).contains(Move.capture(E4, D5, PAWN.of(BLACK, D5)));
+    }
+
+    private static long perft(Board board, int depth) {
+        if (depth == 0) return 1;
+
+        var nodes = 0L;
+        for (Move move : board.moves()) {
+            nodes += perft(board.perform(move), depth - 1);
+        }
+
+        return nodes;
+    }
+
+    private static long reference(Board board, int depth) {
+        if (depth == 0) return 1;
+
+        var nodes = 0L;
+        for (Move move : referenceMoves(board)) {
+            nodes += reference(board.perform(move), depth - 1);
+        }
+
+        return nodes;
+    }
+
+    private static List<Move> referenceMoves(Board board) {
+        return board.moves(board.side()).stream()
+                .filter(move -> board.perform(move)
+                        .moves(board.side().flip()).stream()
+                        .noneMatch(Board::capturesKing))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,63 @@
+package org.bojarski.chess.board.map;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class NotationTest {
+
+    @Test
+    public void shouldRoundTripUciMoves() {
+        final var board = Board.initialized();
+
+        for (Move move : board.moves()) {
+            then(Notation.uci(board, Notation.uci(move))).isEqualTo(move);
+        }
+        then(Notation.uci(move(E2, E4))).isEqualTo("e2e4");
+        thenThrownBy(() -> Notation.uci(board, "e2e5")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldReadPromotions() {
+        final var board = Board.empty()
+                .placePiece(WHITE, KING, A1)
+                .placePiece(WHITE, PAWN, B7)
+                .placePiece(BLACK, KING, H8);
+
+        then(Notation.uci(board, "b7b8n").promoted()).isEqualTo(KNIGHT);
+        then(Notation.uci(board, "b7b8").promoted()).isEqualTo(QUEEN);
+        then(Notation.uci(Notation.uci(board, "b7b8r"))).isEqualTo("b7b8r");
+    }
+
+    @Test
+    public void shouldWriteStandardAlgebraicNotation() {
+        final var board = Board.fromFen("4k3/1P6/8/3p4/4P3/8/4K3/R4RN1 w - - 0 1");
+
+        then(Notation.san(board, move(G1, F3))).isEqualTo("Nf3");
+        then(Notation.san(board, Notation.uci(board, "e4d5"))).isEqualTo("exd5");
+        then(Notation.san(board, Notation.uci(board, "b7b8q"))).isEqualTo("b8=Q+");
+        then(Notation.san(board, move(A1, D1))).isEqualTo("Rad1");
+        then(Notation.san(board, move(F1, D1))).isEqualTo("Rfd1");
+        then(Notation.san(board, move(A1, A5))).isEqualTo("Ra5");
+        then(Notation.san(Board.fromFen("k7/6R1/8/8/8/8/8/4K2R w - - 0 1"), move(H1, H8))).isEqualTo("Rh8#");
+        then(Notation.san(Board.fromFen("7k/8/8/8/R7/8/8/R3K3 w - - 0 1"), move(A1, A3))).isEqualTo("R1a3");
+    }
+
+    @Test
+    public void shouldReadStandardAlgebraicNotation() {
+        final var board = Board.fromFen("4k3/1P6/8/3p4/4P3/8/4K3/R4RN1 w - - 0 1");
+
+        then(Notation.san(board, "Nf3")).isEqualTo(move(G1, F3));
+        then(Notation.san(board, "exd5!")).isEqualTo(Notation.uci(board, "e4d5"));
+        then(Notation.san(board, "b8N")).isEqualTo(Notation.uci(board, "b7b8n"));
+        then(Notation.san(board, "b8=Q")).isEqualTo(Notation.uci(board, "b7b8q"));
+        thenThrownBy(() -> Notation.san(board, "O-O")).isInstanceOf(IllegalArgumentException.class);
+        thenThrownBy(() -> Notation.san(board, "Rd1")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
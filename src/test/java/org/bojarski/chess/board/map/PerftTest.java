@@ -0,0 +1,30 @@
+package org.bojarski.chess.board.map;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+
+public class PerftTest {
+
+    @Test
+    public void shouldMatchSuiteNodeCounts() {
+        for (Perft.Position position : Perft.SUITE) {
+            for (int depth = 1; depth <= Math.min(position.depth(), 3); depth++) {
+                then(Perft.perft(position.board(), depth))
+                        .as("%s at depth %d", position.name(), depth)
+                        .isEqualTo(position.nodes()[depth - 1]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldDivideIntoMoveSubtrees() {
+        final var board = Board.initialized();
+        final var divided = Perft.divide(board, 3);
+
+        then(divided).hasSize(20).containsEntry(move(E2, E4), 600L).containsEntry(move(G1, F3), 440L);
+        then(divided.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(Perft.perft(board, 3));
+    }
+}
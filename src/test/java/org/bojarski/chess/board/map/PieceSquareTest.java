@@ -0,0 +1,69 @@
+package org.bojarski.chess.board.map;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class PieceSquareTest {
+
+    @Test
+    public void shouldUpdateScoreIncrementally() {
+        final var random = new Random(19);
+
+        for (int game = 0; game < 20; game++) {
+            var board = Board.initialized();
+            for (int ply = 0; ply < 100 && !board.gameover(); ply++) {
+                then(board.score()).isEqualTo(score(board));
+                board = board.perform(board.moves().get(random.nextInt(board.moves().size())));
+            }
+        }
+    }
+
+    @Test
+    public void shouldScorePromotionAndEditing() {
+        final var board = Board.empty()
+                .placePiece(WHITE, PAWN, H7)
+                .placePiece(BLACK, ROOK, G8)
+                .placePiece(WHITE, KING, A1)
+                .placePiece(BLACK, KING, A8);
+
+        final var promoted = board.perform(Move.queenPromotion(H7, G8, ROOK.of(BLACK, G8)));
+        final var edited = board.removePiece(G8).placePiece(BLACK, BISHOP, G8);
+
+        then(promoted.score()).isEqualTo(score(promoted)).isGreaterThan(80.0);
+        then(edited.score()).isEqualTo(score(edited));
+        then(Board.initialized().score()).isZero();
+    }
+
+    @Test
+    public void shouldTaperTowardsEndgameTables() {
+        final var opening = Board.initialized();
+        final var ending = Board.empty()
+                .placePiece(WHITE, KING, E4)
+                .placePiece(BLACK, KING, H8);
+
+        then(opening.score()).isZero();
+        then(ending.score()).isEqualTo(PieceSquare.endgame(KING.of(WHITE, E4)) + PieceSquare.endgame(KING.of(BLACK, H8)));
+        then(ending.score()).isPositive();
+        then(score(opening)).isEqualTo(opening.score());
+    }
+
+    private static double score(Board board) {
+        var middlegame = 0.0;
+        var endgame = 0.0;
+        var phase = 0;
+        for (Piece piece : board.pieces()) {
+            middlegame += PieceSquare.middlegame(piece);
+            endgame += PieceSquare.endgame(piece);
+            phase += PieceSquare.phase(piece);
+        }
+
+        return PieceSquare.taper(middlegame, endgame, phase);
+    }
+}
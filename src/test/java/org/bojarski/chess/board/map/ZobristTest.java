@@ -0,0 +1,103 @@
+package org.bojarski.chess.board.map;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class ZobristTest {
+
+    @Test
+    public void shouldUpdateKeyIncrementally() {
+        final var random = new Random(17);
+
+        for (int game = 0; game < 20; game++) {
+            var board = Board.initialized();
+            for (int ply = 0; ply < 100 && !board.gameover(); ply++) {
+                then(board.key()).isEqualTo(Zobrist.key(board.side(), board.pieces()));
+                board = board.perform(board.moves().get(random.nextInt(board.moves().size())));
+            }
+        }
+    }
+
+    @Test
+    public void shouldUpdatePawnKeyIncrementally() {
+        final var random = new Random(23);
+
+        for (int game = 0; game < 20; game++) {
+            var board = Board.initialized();
+            for (int ply = 0; ply < 100 && !board.gameover(); ply++) {
+                then(board.pawnKey()).isEqualTo(Zobrist.pawnKey(board.pieces()));
+                board = board.perform(board.moves().get(random.nextInt(board.moves().size())));
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepPawnKeyWhenOnlyPiecesMove() {
+        final var board = Board.initialized().perform(move(G1, F3)).perform(move(G8, F6));
+
+        then(board.pawnKey()).isEqualTo(Board.initialized().pawnKey());
+        then(board.perform(move(E2, E4)).pawnKey()).isNotEqualTo(board.pawnKey());
+        then(Board.initialized().perform(move(E2, E3)).perform(move(E7, E6)).perform(move(E3, E4)).pawnKey())
+                .isEqualTo(Board.initialized().perform(move(E2, E4)).perform(move(E7, E6)).pawnKey());
+    }
+
+    @Test
+    public void shouldMatchTransposedPositions() {
+        final var first = Board.initialized()
+                .perform(move(G1, F3)).perform(move(G8, F6))
+                .perform(move(B1, C3)).perform(move(B8, C6));
+        final var second = Board.initialized()
+                .perform(move(B1, C3)).perform(move(B8, C6))
+                .perform(move(G1, F3)).perform(move(G8, F6));
+
+        then(first.key()).isEqualTo(second.key());
+        then(first).isEqualTo(second);
+    }
+
+    @Test
+    public void shouldDistinguishSideToMove() {
+        final var black = Board.initialized()
+                .perform(move(G1, F3)).perform(move(G8, F6))
+                .perform(move(F3, G1));
+        final var white = Board.initialized()
+                .removePiece(G8)
+                .placePiece(BLACK, KNIGHT, F6);
+
+        then(black.pieces()).containsExactlyInAnyOrderElementsOf(white.pieces());
+        then(black.key()).isEqualTo(white.key() ^ Zobrist.SIDE);
+        then(black).isNotEqualTo(white);
+    }
+
+    @Test
+    public void shouldDistinguishPawnInitialState() {
+        final var advanced = Board.initialized()
+                .perform(move(E2, E3)).perform(move(G8, F6))
+                .perform(move(E3, E4)).perform(move(F6, G8));
+        final var placed = Board.initialized()
+                .removePiece(E2)
+                .placePiece(WHITE, PAWN, E4);
+
+        then(advanced.pieces()).containsExactlyInAnyOrderElementsOf(placed.pieces());
+        then(advanced.key()).isNotEqualTo(placed.key());
+        then(advanced).isNotEqualTo(placed);
+    }
+
+    @Test
+    public void shouldTrackPlacedAndRemovedPieces() {
+        final var board = Board.empty()
+                .placePiece(WHITE, KING, E1)
+                .placePiece(BLACK, KING, E8)
+                .placePiece(BLACK, QUEEN, D8);
+
+        then(board.removePiece(D8).key()).isEqualTo(Board.empty().placePiece(WHITE, KING, E1).placePiece(BLACK, KING, E8).key());
+        then(board.key()).isEqualTo(Zobrist.key(board.side(), board.pieces()));
+    }
+}
@@ -0,0 +1,51 @@
+package org.bojarski.epd;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Duration;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class AnalysisTest {
+    private static final String SUITE = String.join("\n",
+            "# free pieces",
+            "4k3/8/8/3q4/8/8/3Q4/4K3 w - - bm Qxd5; id \"queen\";",
+            "4k3/8/8/8/8/2n5/8/R3K3 w - - bm O-O-O; id \"castling\";",
+            "",
+            "4k3/8/8/8/8/5b2/6P1/4K3 w - - bm gxf3+ gxf3; id \"bishop\";",
+            "4k3/8/8/8/8/8/8/4K3 w - - id \"no target\";",
+            "not a position");
+
+    @Test
+    public void shouldAnalyseEveryPositionAndReportSolveRate() throws Exception {
+        final var output = new StringWriter();
+        final var report = Analysis.builder().depth(3).workers(2).megabytes(1).build()
+                .run(new BufferedReader(new StringReader(SUITE)), output);
+
+        final var lines = output.toString().split("\\R");
+        then(lines).hasSize(5);
+        then(lines).anyMatch(line -> line.startsWith("{\"line\":2,\"id\":\"queen\",") && line.contains("\"move\":\"Qxd5\"") && line.endsWith("\"solved\":true}"));
+        then(lines).anyMatch(line -> line.startsWith("{\"line\":5,\"id\":\"bishop\",") && line.endsWith("\"solved\":true}"));
+        then(lines).anyMatch(line -> line.startsWith("{\"line\":6,\"id\":\"no target\",") && !line.contains("solved"));
+        then(lines).anyMatch(line -> line.startsWith("{\"line\":7,\"error\":"));
+
+        then(report.positions()).isEqualTo(4);
+        then(report.errors()).isEqualTo(1);
+        then(report.targets()).isEqualTo(3);
+        then(report.solved()).isEqualTo(2);
+        then(report.solveRate()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    public void shouldAnalyseWithinTimePerPosition() throws Exception {
+        final var output = new StringWriter();
+        final var report = Analysis.builder().time(Duration.ofMillis(200)).workers(1).megabytes(1).build()
+                .run(new BufferedReader(new StringReader("4k3/8/8/3q4/8/8/3Q4/4K3 w - - bm Qxd5;")), output);
+
+        then(report.solved()).isEqualTo(1);
+        then(report.nanos()).isLessThan(Duration.ofSeconds(5).toNanos());
+    }
+}
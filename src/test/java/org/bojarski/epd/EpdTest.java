@@ -0,0 +1,37 @@
+package org.bojarski.epd;
+
+import org.bojarski.chess.board.map.Board;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+public class EpdTest {
+
+    @Test
+    public void shouldReadPositionAndOperations() {
+        final var epd = Epd.of("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - bm e4 d4; id \"start; both\"; acd 12;");
+
+        then(epd.board()).isEqualTo(Board.initialized());
+        then(epd.best()).containsExactly("e4", "d4");
+        then(epd.id()).isEqualTo("start; both");
+        then(epd.operations()).containsEntry("acd", List.of("12"));
+    }
+
+    @Test
+    public void shouldReadPositionWithoutOperations() {
+        final var epd = Epd.of("4k3/8/8/8/8/8/8/4K3 b - -");
+
+        then(epd.board().toFen()).isEqualTo("4k3/8/8/8/8/8/8/4K3 b - - 0 1");
+        then(epd.best()).isEmpty();
+        then(epd.id()).isNull();
+    }
+
+    @Test
+    public void shouldRejectIncompletePosition() {
+        thenThrownBy(() -> Epd.of("4k3/8/8/8/8/8/8/4K3 b -")).isInstanceOf(IllegalArgumentException.class);
+        thenThrownBy(() -> Epd.of("4k3/8/8/8/8/8/8/4K3 b - - id \"open")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,37 @@
+package org.bojarski.negamax;
+
+import java.util.List;
+
+// every action advances one coordinate, so transpositions always meet at the same remaining depth
+final class Lattice {
+    static final Domain<Long, Integer> DOMAIN = Domain.<Long, Integer>builder()
+            .actionsProducer(state -> List.of(0, 1, 2))
+            .actionPerformer(Lattice::perform)
+            .build();
+
+    private Lattice() {
+    }
+
+    static Long perform(Long state, Integer action) {
+        return state + (action == 0 ? 1L : action == 1 ? 1000L : 1000000L);
+    }
+
+    static long key(Long state) {
+        return state * 0x9E3779B97F4A7C15L;
+    }
+
+    static double heuristic(Long state) {
+        return ((state + 1) * 0x9E3779B97F4A7C15L >>> 11) / (double) (1L << 53);
+    }
+
+    static double minimax(long state, int depth) {
+        if (depth == 0) return heuristic(state);
+
+        var best = Double.NEGATIVE_INFINITY;
+        for (int action = 0; action < 3; action++) {
+            best = Math.max(best, -minimax(perform(state, action), depth - 1));
+        }
+
+        return best;
+    }
+}
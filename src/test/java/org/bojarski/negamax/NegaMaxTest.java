@@ -0,0 +1,203 @@
+package org.bojarski.negamax;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class NegaMaxTest {
+
+    @Test
+    public void shouldFindBestMoveWithAspirationWindows() {
+        final var plain = NegaMax.<Long, Integer>of(Lattice::heuristic, Lattice.DOMAIN);
+
+        for (double aspiration : new double[]{0.0, 0.001, 0.05, 1.0}) {
+            for (long start = 0; start < 10; start++) {
+                for (int depth = 1; depth <= 6; depth++) {
+                    final var windowed = plain.toBuilder().aspiration(aspiration).build();
+                    final var cached = windowed.toBuilder().key(Lattice::key).table(TranspositionTable.of(1)).build();
+
+                    thenBest(start, depth, windowed.search(start, state -> false, depth).iterator().next());
+                    thenBest(start, depth, cached.search(start, state -> false, depth).iterator().next());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindBestMoveWithPrincipalVariationSearch() {
+        final var principal = NegaMax.<Long, Integer>of(Lattice::heuristic, Lattice.DOMAIN).toBuilder().principal(true).build();
+
+        for (long start = 0; start < 10; start++) {
+            for (int depth = 1; depth <= 6; depth++) {
+                thenBest(start, depth, principal.search(start, state -> false, depth).iterator().next());
+                thenBest(start, depth, principal.toBuilder().aspiration(0.01).build().search(start, state -> false, depth).iterator().next());
+            }
+        }
+    }
+
+    @Test
+    public void shouldFindBestMoveWithHelperThreads() {
+        final var parallel = NegaMax.<Long, Integer>of(Lattice::heuristic, Lattice.DOMAIN).toBuilder().threads(4).build();
+
+        for (long start = 0; start < 10; start++) {
+            for (int depth = 1; depth <= 6; depth++) {
+                thenBest(start, depth, parallel.search(start, state -> false, depth).iterator().next());
+            }
+        }
+    }
+
+    @Test
+    public void shouldReportSearchStatistics() {
+        final var evaluated = new AtomicLong();
+        final var search = NegaMax.<Long, Integer>of(state -> {
+                    evaluated.incrementAndGet();
+                    return Lattice.heuristic(state);
+                }, Lattice.DOMAIN).toBuilder()
+                .key(Lattice::key)
+                .table(TranspositionTable.of(1))
+                .build()
+                .search(0L, state -> false, 5);
+        search.iterator().next();
+
+        final var statistics = search.statistics();
+        then(statistics.iterations()).extracting(Statistics.Iteration::depth).containsExactly(1, 2, 3, 4, 5);
+        then(statistics.nodes()).isEqualTo(statistics.iterations().stream().mapToLong(Statistics.Iteration::nodes).sum());
+        then(statistics.evaluations()).isEqualTo(evaluated.get());
+        then(statistics.depth()).isEqualTo(5);
+        then(statistics.selective()).isEqualTo(5);
+        then(statistics.hits()).isPositive();
+        then(statistics.cutoffs()).isGreaterThanOrEqualTo(statistics.firstCutoffs()).isPositive();
+        then(statistics.branching()).isGreaterThan(1.0);
+        then(statistics.json())
+                .startsWith("{\"nodes\":" + statistics.nodes() + ",")
+                .contains("\"iterations\":[{\"depth\":1,")
+                .doesNotContain("\n");
+    }
+
+    @Test
+    public void shouldIteratePrincipalVariationWithoutSearchingAgain() {
+        final var performed = new AtomicLong();
+        final var domain = Domain.<Long, Integer>builder()
+                .actionsProducer(state -> List.of(0, 1, 2))
+                .actionPerformer((state, action) -> {
+                    performed.incrementAndGet();
+                    return Lattice.perform(state, action);
+                })
+                .build();
+
+        for (long start = 0; start < 10; start++) {
+            for (int depth = 1; depth <= 6; depth++) {
+                final var iterator = NegaMax.<Long, Integer>of(Lattice::heuristic, domain).toBuilder()
+                        .principal(true)
+                        .build()
+                        .search(start, state -> false, depth)
+                        .iterator();
+
+                final var variation = new ArrayList<Integer>();
+                variation.add(iterator.next());
+                final var searched = performed.get();
+                iterator.forEachRemaining(variation::add);
+
+                var state = start;
+                for (Integer action : variation) state = Lattice.perform(state, action);
+
+                then(performed.get()).isEqualTo(searched);
+                then(variation).hasSize(depth);
+                then((depth % 2 == 0 ? 1 : -1) * Lattice.heuristic(state)).isEqualTo(Lattice.minimax(start, depth));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReturnMoveWhenHardLimitExpires() {
+        final var search = NegaMax.<Long, Integer>of(Lattice::heuristic, Lattice.DOMAIN)
+                .search(0L, state -> false, 40, Budget.of(Duration.ofMillis(50), Duration.ofMillis(100)));
+
+        final var start = System.nanoTime();
+        final var action = search.iterator().next();
+
+        then(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        then(action).isIn(0, 1, 2);
+    }
+
+    @Test
+    public void shouldReturnMoveWhenStopped() {
+        final var search = NegaMax.<Long, Integer>of(Lattice::heuristic, Lattice.DOMAIN)
+                .search(0L, state -> false, 40);
+
+        search.stop();
+
+        then(search.iterator().next()).isIn(0, 1, 2);
+    }
+
+    @Test
+    public void shouldUnmakeActionsWhenAborted() {
+        final var domain = MutableDomain.<Deque<Integer>, Integer>builder()
+                .actionsProducer(state -> List.of(0, 1, 2))
+                .actionMaker(Deque::push)
+                .actionUnmaker((state, action) -> state.pop())
+                .build();
+        final var state = new ArrayDeque<Integer>();
+
+        NegaMax.<Deque<Integer>, Integer>of(s -> s.hashCode() % 7, domain)
+                .search(state, s -> false, 40, Budget.of(Duration.ZERO, Duration.ofMillis(20)))
+                .iterator().next();
+
+        then(state).isEmpty();
+    }
+
+    // the null move searches a subtree of its own, the hash action of the node itself still has to be tried first
+    @Test
+    public void shouldTryHashActionFirstAfterNullMove() {
+        for (int nullMove : new int[]{0, 1}) {
+            for (long start = 0; start < 10; start++) {
+                final var table = TranspositionTable.<Integer>of(1);
+                final var probed = new HashMap<Long, Integer>();
+                final var tried = new ArrayList<Integer[]>();
+                final var domain = Domain.<Long, Integer>builder()
+                        .actionsProducer(state -> {
+                            final var entry = new TranspositionTable.Entry<Integer>();
+                            if (table.probe(Lattice.key(state), entry) && entry.action() != null) probed.put(state, entry.action());
+                            return List.of(0, 1, 2);
+                        })
+                        .actionPerformer((state, action) -> {
+                            final var hashed = probed.remove(state);
+                            if (hashed != null) tried.add(new Integer[]{hashed, action});
+                            return Lattice.perform(state, action);
+                        })
+                        .statePasser(state -> state ^ 1L << 50)
+                        .build();
+
+                NegaMax.<Long, Integer>of(Lattice::heuristic, domain).toBuilder()
+                        .key(Lattice::key)
+                        .table(table)
+                        .nullMove(nullMove)
+                        .build()
+                        .search(start, state -> false, 7)
+                        .iterator().next();
+
+                then(tried).as("null move %d start %d", nullMove, start).isNotEmpty();
+                for (Integer[] pair : tried) then(pair[1]).as("null move %d start %d", nullMove, start).isEqualTo(pair[0]);
+            }
+        }
+    }
+
+    private static void thenBest(long start, int depth, Integer action) {
+        var best = Double.NEGATIVE_INFINITY;
+        for (int candidate = 0; candidate < 3; candidate++) {
+            best = Math.max(best, -Lattice.minimax(Lattice.perform(start, candidate), depth - 1));
+        }
+
+        then(-Lattice.minimax(Lattice.perform(start, action), depth - 1))
+                .as("start %d depth %d", start, depth)
+                .isEqualTo(best);
+    }
+}
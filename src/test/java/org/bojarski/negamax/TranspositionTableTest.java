@@ -0,0 +1,76 @@
+package org.bojarski.negamax;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.negamax.TranspositionTable.Bound.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void shouldReturnStoredEntry() {
+        final var table = TranspositionTable.<String>of(1);
+        final var entry = new TranspositionTable.Entry<String>();
+
+        table.store(42L, 5, LOWER, 12.5, "e2e4");
+
+        then(table.probe(42L, entry)).isTrue();
+        then(entry.depth()).isEqualTo(5);
+        then(entry.bound()).isEqualTo(LOWER);
+        then(entry.score()).isEqualTo(12.5);
+        then(entry.action()).isEqualTo("e2e4");
+        then(table.probe(43L, entry)).isFalse();
+    }
+
+    @Test
+    public void shouldKeepDeeperEntryAndReplaceSecondSlot() {
+        final var table = TranspositionTable.<String>of(1);
+        final var entry = new TranspositionTable.Entry<String>();
+        final long first = 7L, second = 7L + table.capacity(), third = 7L + 2L * table.capacity();
+
+        table.store(first, 8, EXACT, 1.0, "deep");
+        table.store(second, 2, EXACT, 2.0, "shallow");
+        table.store(third, 1, EXACT, 3.0, "newest");
+
+        then(table.probe(first, entry)).isTrue();
+        then(entry.action()).isEqualTo("deep");
+        then(table.probe(second, entry)).isFalse();
+        then(table.probe(third, entry)).isTrue();
+        then(entry.action()).isEqualTo("newest");
+    }
+
+    @Test
+    public void shouldReplaceEntriesFromPreviousSearch() {
+        final var table = TranspositionTable.<String>of(1);
+        final var entry = new TranspositionTable.Entry<String>();
+        final long old = 7L, recent = 7L + table.capacity();
+
+        table.store(old, 8, EXACT, 1.0, "old");
+        table.age();
+        table.store(recent, 2, EXACT, 2.0, "new");
+
+        then(table.probe(recent, entry)).isTrue();
+        then(entry.depth()).isEqualTo(2);
+        then(entry.action()).isEqualTo("new");
+    }
+
+    @Test
+    public void shouldFindMoveAsGoodAsPlainSearch() {
+        final var plain = NegaMax.<Long, Integer>of(Lattice::heuristic, Lattice.DOMAIN);
+
+        for (long start = 0; start < 20; start++) {
+            for (int depth = 1; depth <= 6; depth++) {
+                final var cached = plain.toBuilder()
+                        .key(Lattice::key)
+                        .table(TranspositionTable.of(1))
+                        .build();
+                final var expected = plain.search(start, state -> false, depth).iterator().next();
+                final var actual = cached.search(start, state -> false, depth).iterator().next();
+
+                then(Lattice.minimax(Lattice.perform(start, actual), depth - 1))
+                        .as("start %d depth %d", start, depth)
+                        .isEqualTo(Lattice.minimax(Lattice.perform(start, expected), depth - 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.bojarski.player;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.chess.board.map.PieceSquare;
+import org.bojarski.negamax.Domain;
+import org.bojarski.negamax.NegaMax;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class ChessOrderingTest {
+
+    @Test
+    public void shouldPreferValuableVictimsAndCheapAttackers() {
+        final var board = Board.empty()
+                .placePiece(WHITE, PAWN, C4)
+                .placePiece(WHITE, QUEEN, D1)
+                .placePiece(WHITE, KING, A1)
+                .placePiece(BLACK, QUEEN, D5)
+                .placePiece(BLACK, PAWN, D2)
+                .placePiece(BLACK, KING, H8);
+        final var ordering = new ChessOrdering();
+
+        final var pawnTakesQueen = ordering.score(board, Move.capture(C4, D5, QUEEN.of(BLACK, D5)));
+        final var queenTakesQueen = ordering.score(board, Move.capture(D1, D5, QUEEN.of(BLACK, D5)));
+        final var queenTakesPawn = ordering.score(board, Move.capture(D1, D2, PAWN.of(BLACK, D2)));
+
+        then(pawnTakesQueen).isGreaterThan(queenTakesQueen);
+        then(queenTakesQueen).isGreaterThan(queenTakesPawn);
+        then(ordering.gain(board, Move.capture(C4, D5, QUEEN.of(BLACK, D5)))).isEqualTo(PieceSquare.material(QUEEN));
+        then(ordering.quiet(move(C4, C5))).isTrue();
+        then(ordering.quiet(Move.capture(C4, D5, QUEEN.of(BLACK, D5)))).isFalse();
+    }
+
+    @Test
+    public void shouldVisitFewerNodesWithoutChangingScore() {
+        final var board = Board.initialized()
+                .perform(move(E2, E4)).perform(move(D7, D5))
+                .perform(move(G1, F3)).perform(move(B8, C6))
+                .perform(move(F1, B5)).perform(move(G8, F6));
+
+        final var plainNodes = new LongAdder();
+        final var orderedNodes = new LongAdder();
+        final var plain = NegaMax.of(ChessPlayer::evaluate, counting(plainNodes));
+        final var ordered = NegaMax.of(ChessPlayer::evaluate, counting(orderedNodes)).toBuilder()
+                .ordering(new ChessOrdering())
+                .build();
+
+        final var expected = plain.search(board, Board::gameover, 4).iterator().next();
+        final var search = ordered.search(board, Board::gameover, 4);
+        final var actual = search.iterator().next();
+
+        then(orderedNodes.sum()).isLessThan(plainNodes.sum() / 2);
+        then(score(board.perform(actual))).isEqualTo(score(board.perform(expected)));
+        then(search.statistics().firstCutoffRate()).isGreaterThan(0.8);
+        System.out.printf("nodes %d -> %d, first move cutoff rate %.3f%n",
+                plainNodes.sum(), orderedNodes.sum(), search.statistics().firstCutoffRate());
+    }
+
+    private static double score(Board board) {
+        return -minimax(board, 3);
+    }
+
+    private static double minimax(Board board, int depth) {
+        if (depth == 0 || board.gameover()) return ChessPlayer.evaluate(board);
+
+        var best = Double.NEGATIVE_INFINITY;
+        for (Move move : board.moves()) {
+            best = Math.max(best, -minimax(board.perform(move), depth - 1));
+        }
+
+        return best;
+    }
+
+    private static Domain<Board, Move> counting(LongAdder nodes) {
+        return Domain.<Board, Move>builder()
+                .actionPerformer((board, move) -> {
+                    nodes.increment();
+                    return board.perform(move);
+                })
+                .actionsProducer(Board::moves)
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package org.bojarski.player;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.chess.board.map.Move;
+import org.bojarski.negamax.Domain;
+import org.bojarski.negamax.NegaMax;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class ChessPlayerTest {
+    private static final Domain<Board, Move> CHESS = Domain.<Board, Move>builder()
+            .actionPerformer(Board::perform)
+            .actionsProducer(Board::moves)
+            .build();
+
+    @Test
+    public void shouldNotTakeDefendedPieceWithQueenAtHorizon() {
+        final var board = Board.empty()
+                .placePiece(WHITE, KING, A1)
+                .placePiece(WHITE, QUEEN, D1)
+                .placePiece(BLACK, KNIGHT, D5)
+                .placePiece(BLACK, PAWN, E6)
+                .placePiece(BLACK, KING, H8);
+        final var blunder = Move.capture(D1, D5, KNIGHT.of(BLACK, D5));
+
+        final var plain = NegaMax.of(ChessPlayer::evaluate, CHESS);
+        final var quiescent = plain.toBuilder()
+                .ordering(new ChessOrdering())
+                .quiescence(true)
+                .delta(20.0)
+                .build();
+
+        then(plain.search(board, Board::gameover, 1).iterator().next()).isEqualTo(blunder);
+        then(quiescent.search(board, Board::gameover, 1).iterator().next()).isNotEqualTo(blunder);
+    }
+
+    @Test
+    public void shouldVisitFewerNodesWithPrincipalVariationSearch() {
+        final var suite = List.of(
+                Board.initialized(),
+                Board.initialized().perform(Move.move(D2, D4)).perform(Move.move(D7, D5)).perform(Move.move(C2, C4)),
+                Board.initialized().perform(Move.move(E2, E4)).perform(Move.move(E7, E5)).perform(Move.move(G1, F3)).perform(Move.move(B8, C6)),
+                Board.empty()
+                        .placePiece(WHITE, KING, G1).placePiece(WHITE, ROOK, D1).placePiece(WHITE, KNIGHT, F3)
+                        .placePiece(WHITE, PAWN, F2).placePiece(WHITE, PAWN, G2).placePiece(WHITE, PAWN, H2)
+                        .placePiece(BLACK, KING, G8).placePiece(BLACK, ROOK, D8).placePiece(BLACK, BISHOP, C5)
+                        .placePiece(BLACK, PAWN, F7).placePiece(BLACK, PAWN, G7).placePiece(BLACK, PAWN, H7),
+                Board.empty()
+                        .placePiece(WHITE, KING, E1).placePiece(WHITE, QUEEN, D1).placePiece(WHITE, PAWN, E4)
+                        .placePiece(BLACK, KING, E8).placePiece(BLACK, QUEEN, D8).placePiece(BLACK, PAWN, E5)
+        );
+
+        final var plainNodes = new LongAdder();
+        final var principalNodes = new LongAdder();
+        final var plain = NegaMax.of(ChessPlayer::evaluate, counting(plainNodes)).toBuilder()
+                .ordering(new ChessOrdering())
+                .build();
+        final var principal = NegaMax.of(ChessPlayer::evaluate, counting(principalNodes)).toBuilder()
+                .ordering(new ChessOrdering())
+                .principal(true)
+                .build();
+
+        for (Board board : suite) {
+            final var expected = plain.search(board, Board::gameover, 4).iterator().next();
+            final var actual = principal.search(board, Board::gameover, 4).iterator().next();
+
+            then(actual).isEqualTo(expected);
+        }
+        System.out.printf("alpha-beta %d nodes, principal variation search %d nodes%n", plainNodes.sum(), principalNodes.sum());
+
+        then(principalNodes.sum()).isLessThan(plainNodes.sum());
+    }
+
+    @Test
+    public void shouldVisitFewerNodesWithNullMoveAndLateMoveReductions() {
+        final var board = Board.initialized()
+                .perform(Move.move(E2, E4)).perform(Move.move(E7, E5))
+                .perform(Move.move(G1, F3)).perform(Move.move(B8, C6));
+
+        final var plainNodes = new LongAdder();
+        final var prunedNodes = new LongAdder();
+        final var plain = NegaMax.of(ChessPlayer::evaluate, counting(plainNodes)).toBuilder()
+                .ordering(new ChessOrdering())
+                .principal(true)
+                .build();
+        final var pruned = NegaMax.of(ChessPlayer::evaluate, counting(prunedNodes)).toBuilder()
+                .ordering(new ChessOrdering())
+                .principal(true)
+                .nullMove(2)
+                .zugzwang(ChessPlayer::zugzwang)
+                .lateMoves(4)
+                .build();
+
+        plain.search(board, Board::gameover, 5).iterator().next();
+        final var move = pruned.search(board, Board::gameover, 5).iterator().next();
+        System.out.printf("alpha-beta %d nodes, null move and late move reductions %d nodes%n", plainNodes.sum(), prunedNodes.sum());
+
+        then(board.moves()).contains(move);
+        then(prunedNodes.sum()).isLessThan(plainNodes.sum());
+    }
+
+    @Test
+    public void shouldNotPassInKingAndPawnEndings() {
+        final var ending = Board.empty()
+                .placePiece(WHITE, KING, E1).placePiece(WHITE, PAWN, E4)
+                .placePiece(BLACK, KING, E8).placePiece(BLACK, PAWN, D5).placePiece(BLACK, KNIGHT, A8);
+        final var passes = new LongAdder();
+        final var domain = Domain.<Board, Move>builder()
+                .actionPerformer(Board::perform)
+                .actionsProducer(Board::moves)
+                .statePasser(board -> {
+                    if (ChessPlayer.zugzwang(board)) passes.increment();
+                    return board.pass();
+                })
+                .build();
+
+        NegaMax.of(ChessPlayer::evaluate, domain).toBuilder()
+                .nullMove(1)
+                .zugzwang(ChessPlayer::zugzwang)
+                .build()
+                .search(ending, Board::gameover, 4).iterator().next();
+
+        then(ChessPlayer.zugzwang(ending)).isTrue();
+        then(ChessPlayer.zugzwang(ending.pass())).isFalse();
+        then(passes.sum()).isZero();
+    }
+
+    @Test
+    public void shouldEvaluateWithoutAllocating() {
+        final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final var thread = Thread.currentThread().getId();
+        final var board = Board.initialized().perform(Move.move(E2, E4)).perform(Move.move(E7, E5));
+
+        var sum = 0.0;
+        for (int call = 0; call < 100_000; call++) sum += ChessPlayer.evaluate(board);
+
+        final var before = threads.getThreadAllocatedBytes(thread);
+        for (int call = 0; call < 100_000; call++) sum += ChessPlayer.evaluate(board);
+        final var allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        then(sum).isNotNaN();
+        then(allocated).isLessThan(1024);
+    }
+
+    @Test
+    public void shouldFindMoveInOpening() {
+        final var board = Board.initialized()
+                .perform(Move.move(D2, D4))
+                .perform(Move.move(D7, D5))
+                .perform(Move.move(C2, C4));
+
+        then(board.moves()).contains(new ChessPlayer().findMove(board, 3).next());
+    }
+
+    @Test
+    public void shouldSearchColdAgainAfterClear() {
+        final var player = new ChessPlayer();
+        final var board = Board.initialized().perform(Move.move(E2, E4)).perform(Move.move(E7, E5));
+
+        player.findMove(board, 4).next();
+        final var cold = player.statistics().nodes();
+        player.findMove(board, 4).next();
+        final var warm = player.statistics().nodes();
+        player.clear();
+        player.findMove(board, 4).next();
+
+        then(warm).isLessThan(cold);
+        then(player.statistics().nodes()).isEqualTo(cold);
+    }
+
+    private static Domain<Board, Move> counting(LongAdder nodes) {
+        return Domain.<Board, Move>builder()
+                .actionPerformer((board, move) -> {
+                    nodes.increment();
+                    return board.perform(move);
+                })
+                .actionsProducer(Board::moves)
+                .statePasser(Board::pass)
+                .build();
+    }
+}
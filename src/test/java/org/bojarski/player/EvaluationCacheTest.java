@@ -0,0 +1,76 @@
+package org.bojarski.player;
+
+import org.bojarski.chess.board.map.Board;
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+
+public class EvaluationCacheTest {
+
+    @Test
+    public void shouldEvaluateOncePerPosition() {
+        final var calls = new AtomicInteger();
+        final var cache = EvaluationCache.<Board>of(16, Board::key, board -> {
+            calls.incrementAndGet();
+            return ChessPlayer.evaluate(board);
+        });
+        final var board = Board.initialized().perform(move(E2, E4));
+
+        then(cache.applyAsDouble(board)).isEqualTo(ChessPlayer.evaluate(board));
+        then(cache.applyAsDouble(board)).isEqualTo(ChessPlayer.evaluate(board));
+        then(cache.applyAsDouble(board.perform(move(E7, E5)))).isEqualTo(ChessPlayer.evaluate(board.perform(move(E7, E5))));
+
+        then(calls.get()).isEqualTo(2);
+        then(cache.hits()).isEqualTo(1);
+        then(cache.misses()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldHitAcrossConsecutiveSearches() {
+        final var player = new ChessPlayer();
+        final var board = Board.initialized().perform(move(D2, D4)).perform(move(D7, D5));
+
+        player.findMove(board, 3).next();
+        final var misses = player.evaluations().misses();
+        final var hits = player.evaluations().hits();
+        player.findMove(board, 3).next();
+
+        then(player.evaluations().misses() - misses).isLessThan(misses / 2);
+        then(player.evaluations().hits() - hits).isGreaterThan(player.evaluations().misses() - misses);
+    }
+
+    @Test
+    public void shouldNotMatchEmptySlots() {
+        final var cache = EvaluationCache.<Long>of(1, state -> state, state -> 1.0);
+
+        then(cache.applyAsDouble(0L)).isEqualTo(1.0);
+        then(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReturnExactScoresUnderConcurrentUse() throws Exception {
+        final var cache = EvaluationCache.<Long>of(1, state -> state * 0x9E3779B97F4A7C15L, state -> (double) state);
+        final var errors = new AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(4);
+
+        for (int thread = 0; thread < 4; thread++) {
+            final var seed = thread;
+            executor.execute(() -> {
+                for (long state = seed; state < 200_000; state += 1 + seed) {
+                    if (cache.applyAsDouble(state % 1000) != state % 1000) errors.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        then(errors.get()).isZero();
+        then(cache.hits() + cache.misses()).isPositive();
+    }
+}
@@ -0,0 +1,69 @@
+package org.bojarski.player;
+
+import org.bojarski.chess.board.map.Board;
+import org.junit.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.bojarski.chess.board.map.Field.*;
+import static org.bojarski.chess.board.map.Move.move;
+import static org.bojarski.chess.board.map.PieceKind.*;
+import static org.bojarski.chess.board.map.Side.BLACK;
+import static org.bojarski.chess.board.map.Side.WHITE;
+
+public class PawnCacheTest {
+
+    @Test
+    public void shouldScoreDoubledIsolatedAndPassedPawns() {
+        final var doubled = Board.empty()
+                .placePiece(WHITE, PAWN, C2).placePiece(WHITE, PAWN, C3).placePiece(WHITE, PAWN, D2)
+                .placePiece(BLACK, PAWN, C7).placePiece(BLACK, PAWN, D7).placePiece(BLACK, PAWN, B7);
+        final var isolated = Board.empty()
+                .placePiece(WHITE, PAWN, A2).placePiece(WHITE, PAWN, H2)
+                .placePiece(BLACK, PAWN, A7).placePiece(BLACK, PAWN, B7).placePiece(BLACK, PAWN, G7).placePiece(BLACK, PAWN, H7);
+        final var passed = Board.empty()
+                .placePiece(WHITE, PAWN, E6)
+                .placePiece(BLACK, PAWN, A7);
+
+        then(PawnCache.structure(doubled)).isEqualTo(-1.5);
+        then(PawnCache.structure(isolated)).isEqualTo(-2.0);
+        then(PawnCache.structure(passed)).isEqualTo((4.0 - 1.0) - (1.0 - 1.0));
+        then(PawnCache.structure(Board.initialized())).isZero();
+    }
+
+    @Test
+    public void shouldComputeStructureOncePerPawnKey() {
+        final var cache = PawnCache.of(16);
+        final var board = Board.initialized().perform(move(E2, E4)).perform(move(E7, E5));
+        final var knights = board.perform(move(G1, F3)).perform(move(B8, C6));
+
+        then(cache.score(board)).isEqualTo(PawnCache.structure(board));
+        then(cache.score(knights)).isEqualTo(PawnCache.structure(knights));
+        then(cache.score(board.perform(move(D2, D4)))).isEqualTo(PawnCache.structure(board.perform(move(D2, D4))));
+
+        then(cache.misses()).isEqualTo(2);
+        then(cache.hits()).isEqualTo(1);
+        then(cache.hitRate()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    public void shouldNotMatchEmptySlots() {
+        final var cache = PawnCache.of(1);
+        final var pawnless = Board.empty().placePiece(WHITE, KING, E1).placePiece(BLACK, KING, E8);
+
+        then(pawnless.pawnKey()).isZero();
+        then(cache.score(pawnless)).isZero();
+        then(cache.misses()).isEqualTo(1);
+        then(cache.score(pawnless)).isZero();
+        then(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCacheDuringSearch() {
+        final var player = new ChessPlayer();
+        final var board = Board.initialized().perform(move(D2, D4)).perform(move(D7, D5));
+
+        player.findMove(board, 3).next();
+
+        then(player.pawns().hitRate()).isGreaterThan(0.5);
+    }
+}
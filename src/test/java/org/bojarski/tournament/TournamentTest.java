@@ -0,0 +1,81 @@
+package org.bojarski.tournament;
+
+import org.bojarski.chess.board.map.Board;
+import org.bojarski.player.ChessPlayer;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.within;
+
+public class TournamentTest {
+
+    @Test
+    public void shouldPlayPairedGamesInParallel() throws Exception {
+        final var output = new StringWriter();
+        final var report = Tournament.builder()
+                .first(Contender.of("deep", () -> new ChessPlayer(1), 2))
+                .second(Contender.of("shallow", () -> new ChessPlayer(1), 1))
+                .games(6)
+                .workers(3)
+                .randomPlies(2)
+                .maxPlies(60)
+                .build()
+                .run(output);
+
+        then(report.games()).isEqualTo(6);
+        then(report.wins() + report.draws() + report.losses()).isEqualTo(6);
+        then(report.firstMoves()).isPositive();
+        then(report.secondMoves()).isPositive();
+
+        final var pgn = output.toString();
+        then(pgn.split("\\[Event \"self-play\"]", -1)).hasSize(7);
+        then(pgn.split("\\[Result \"(1-0|0-1|1/2-1/2)\"]", -1)).hasSize(7);
+        then(pgn).contains("[White \"deep\"]", "[White \"shallow\"]", "[FEN \"", "[Termination \"");
+        for (int round = 1; round <= 6; round++) then(pgn).contains("[Round \"" + round + "\"]");
+    }
+
+    @Test
+    public void shouldScoreCheckmate() throws Exception {
+        final var output = new StringWriter();
+        final var report = Tournament.builder()
+                .first(Contender.of("first", ChessPlayer::new, 1))
+                .second(Contender.of("second", ChessPlayer::new, 1))
+                .games(2)
+                .openings(List.of(Board.fromFen("k6R/6R1/8/8/8/8/8/4K3 b - - 0 30")))
+                .build()
+                .run(output);
+
+        then(report.wins()).isEqualTo(1);
+        then(report.losses()).isEqualTo(1);
+        then(output.toString()).contains("[Result \"1-0\"]", "[Termination \"checkmate\"]");
+    }
+
+    @Test
+    public void shouldNumberMovesFromOpening() {
+        final var game = new Game(3, "a", "b", Board.fromFen("4k3/8/8/8/8/8/8/4K2R b - - 0 30"),
+                List.of("Kd7", "Rh7+", "Kc6"), Game.Result.DRAW, "adjudication");
+
+        then(game.pgn())
+                .contains("[Round \"3\"]", "[SetUp \"1\"]", "[FEN \"4k3/8/8/8/8/8/8/4K2R b - - 0 30\"]")
+                .endsWith("\n\n30... Kd7 31. Rh7+ Kc6 1/2-1/2\n\n");
+        then(game.score("a")).isEqualTo(0.5);
+    }
+
+    @Test
+    public void shouldEstimateEloWithConfidenceInterval() {
+        final var even = new Tournament.Report("a", "b", 10, 20, 10, 0, 0, 0, 0);
+        then(even.elo()).isEqualTo(0.0, within(1e-9));
+        then(even.lower()).isNegative();
+        then(even.upper()).isEqualTo(-even.lower(), within(1e-9));
+
+        final var stronger = new Tournament.Report("a", "b", 60, 30, 10, 0, 0, 0, 0);
+        then(stronger.score()).isEqualTo(0.75);
+        then(stronger.elo()).isEqualTo(190.85, within(0.01));
+        then(stronger.lower()).isBetween(100.0, stronger.elo());
+        then(stronger.upper()).isGreaterThan(stronger.elo());
+        then(stronger.toString()).startsWith("a vs b: +60 =30 -10, score 75.0%, Elo +191 [");
+    }
+}
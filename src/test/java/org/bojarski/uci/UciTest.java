@@ -0,0 +1,104 @@
+package org.bojarski.uci;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Scanner;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class UciTest {
+
+    @Test
+    public void shouldIdentifyAndAnswerReady() {
+        final var output = session("uci", "setoption name Hash value 4", "setoption name Threads value 2", "isready", "quit");
+
+        then(output).containsSubsequence("id name chess-ai", "option name Hash type spin default 16 min 1 max 1024", "uciok", "readyok");
+        then(output).noneMatch(line -> line.startsWith("info string"));
+    }
+
+    @Test
+    public void shouldSearchPositionAfterMoves() {
+        final var output = session("position startpos moves e2e4 e7e5 g1f3", "go depth 3");
+
+        then(output).anyMatch(line -> line.startsWith("info depth 3 score cp "));
+        then(output).anyMatch(line -> line.matches("info depth 3 seldepth \\d+ nodes \\d+ nps \\d+ time \\d+ pv( [a-h][1-8][a-h][1-8][qrbn]?)+"));
+        then(output.get(output.size() - 1)).matches("bestmove [a-h][1-8][a-h][1-8] ponder [a-h][1-8][a-h][1-8]");
+    }
+
+    @Test
+    public void shouldReportIllegalMoves() {
+        final var output = session("position startpos moves e2e5", "go depth 1");
+
+        then(output).contains("info string Illegal move e2e5");
+        then(output.get(output.size() - 1)).startsWith("bestmove ");
+    }
+
+    @Test
+    public void shouldSearchFenPosition() {
+        final var output = session("position fen 4k3/8/8/3q4/8/8/3Q4/4K3 w - - 0 1 moves e1f1 e8f8", "go depth 3");
+
+        then(output).noneMatch(line -> line.startsWith("info string"));
+        then(output.get(output.size() - 1)).startsWith("bestmove d2d5");
+    }
+
+    @Test(timeout = 20000)
+    public void shouldStopInfiniteSearch() throws Exception {
+        final var commands = new PipedOutputStream();
+        final var input = new PipedInputStream(commands);
+        final var bytes = new ByteArrayOutputStream();
+        final var output = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+
+        final var engine = new Thread(() -> new Uci(new Scanner(input), output).run());
+        engine.start();
+
+        send(commands, "position startpos");
+        send(commands, "go infinite");
+        Thread.sleep(1000);
+        then(bytes.toString(StandardCharsets.UTF_8)).doesNotContain("bestmove");
+
+        final var stopped = System.nanoTime();
+        send(commands, "stop");
+        while (!bytes.toString(StandardCharsets.UTF_8).contains("bestmove")) Thread.sleep(10);
+        then(System.nanoTime() - stopped).isLessThan(5_000_000_000L);
+
+        send(commands, "quit");
+        engine.join();
+    }
+
+    @Test(timeout = 20000)
+    public void shouldStopInfiniteSearchRightAfterGo() {
+        final var output = session("position startpos", "go infinite", "stop");
+
+        then(output.get(output.size() - 1)).matches("bestmove [a-h][1-8][a-h][1-8].*");
+    }
+
+    @Test(timeout = 20000)
+    public void shouldEndUnboundedSearchWhenInputCloses() {
+        for (String go : new String[]{"go infinite", "go"}) {
+            final var output = session("position startpos", go);
+
+            then(output.get(output.size() - 1)).as(go).matches("bestmove [a-h][1-8][a-h][1-8].*");
+        }
+    }
+
+    private static List<String> session(String... commands) {
+        final var bytes = new ByteArrayOutputStream();
+        final var output = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+
+        new Uci(new Scanner(String.join("\n", commands)), output).run();
+
+        return List.of(bytes.toString(StandardCharsets.UTF_8).split("\\R"));
+    }
+
+    private static void send(PipedOutputStream commands, String command) throws IOException {
+        commands.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+        commands.flush();
+    }
+}